@@ -0,0 +1,55 @@
+package com.tweener.floatingactiongroup;
+
+/**
+ * Immutable description of an action displayed by a {@link FloatingActionGroup}, used to populate a group from code with
+ * {@link FloatingActionGroup#setActions(java.util.List)}.
+ *
+ * @author Vivien Mahe
+ */
+public final class FloatingAction {
+
+    private final int id;
+    private final String label;
+    private final int iconResId;
+    private final int iconTint;
+    private final boolean enabled;
+
+    /**
+     * @param id        stable id of this action, set as the id of its button
+     * @param label     label displayed next to the FAB
+     * @param iconResId drawable displayed in the FAB
+     * @param iconTint  color applied to the icon, or 0 to keep its original colors
+     * @param enabled   whether the action can be clicked
+     */
+    public FloatingAction(final int id, final String label, final int iconResId, final int iconTint, final boolean enabled) {
+        this.id = id;
+        this.label = label;
+        this.iconResId = iconResId;
+        this.iconTint = iconTint;
+        this.enabled = enabled;
+    }
+
+    public FloatingAction(final int id, final String label, final int iconResId) {
+        this(id, label, iconResId, 0, true);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getIconResId() {
+        return iconResId;
+    }
+
+    public int getIconTint() {
+        return iconTint;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
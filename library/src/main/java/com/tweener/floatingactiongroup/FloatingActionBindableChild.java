@@ -0,0 +1,16 @@
+package com.tweener.floatingactiongroup;
+
+/**
+ * {@link FloatingActionChild} which can display any {@link FloatingAction}, so a {@link FloatingActionGroup} populated with
+ * {@link FloatingActionGroup#setActions(java.util.List)} can reuse it for another action, or acquire it from a {@link FloatingActionButtonPool}.
+ * Implemented by views only.
+ *
+ * @author Vivien Mahe
+ */
+public interface FloatingActionBindableChild extends FloatingActionChild {
+
+    /**
+     * Updates this child with the given action, including its id. Only the properties that actually changed should be applied.
+     */
+    void bind(FloatingAction action);
+}
@@ -0,0 +1,89 @@
+package com.tweener.floatingactiongroup;
+
+import android.content.Context;
+import android.view.View;
+
+import java.util.ArrayList;
+
+/**
+ * Pool of action buttons, i.e. views implementing {@link FloatingActionBindableChild}, shared between several {@link FloatingActionGroup}, in the
+ * spirit of RecyclerView's RecycledViewPool.<br>
+ * Groups populated with {@link FloatingActionGroup#setActions(java.util.List)} acquire their new buttons from the pool and release the ones they
+ * remove to it, so a button is only inflated once and then rebound. Buttons hold a reference to the Context they were created with, so a pool
+ * should not outlive the Activity it is used in. Groups only acquire the buttons created with their own Context and of the class they create, the other ones stay in the pool.
+ *
+ * @author Vivien Mahe
+ */
+public class FloatingActionButtonPool {
+
+    private static final int DEFAULT_MAX_RECYCLED_BUTTONS = 10;
+
+    // Only holds views implementing FloatingActionBindableChild
+    private final ArrayList<View> recycledButtons = new ArrayList<>();
+    private int maxRecycledButtons = DEFAULT_MAX_RECYCLED_BUTTONS;
+
+    /**
+     * Sets the maximum number of buttons kept by this pool. Extra buttons are dropped.
+     */
+    public void setMaxRecycledButtons(final int maxRecycledButtons) {
+        this.maxRecycledButtons = maxRecycledButtons;
+
+        while (recycledButtons.size() > maxRecycledButtons) {
+            recycledButtons.remove(recycledButtons.size() - 1);
+        }
+    }
+
+    public int getRecycledButtonCount() {
+        return recycledButtons.size();
+    }
+
+    /**
+     * Returns a recycled button, or {@code null} if the pool is empty. The button must be rebound with
+     * {@link FloatingActionBindableChild#bind(FloatingAction)} before being displayed.
+     */
+    public View getRecycledButton() {
+        final int size = recycledButtons.size();
+        return size > 0 ? recycledButtons.remove(size - 1) : null;
+    }
+
+    /**
+     * Returns a recycled button created with the given Context, or {@code null} if the pool has none. Buttons created with another Context are
+     * kept in the pool. The button must be rebound with {@link FloatingActionBindableChild#bind(FloatingAction)} before being displayed.
+     */
+    public View getRecycledButton(final Context context) {
+        return getRecycledButton(context, View.class);
+    }
+
+    /**
+     * Same as {@link #getRecycledButton(Context)}, only returning a button of the given class, e.g. {@link FloatingActionFlatLabelledButton}.
+     * Buttons of another class are kept in the pool.
+     */
+    public View getRecycledButton(final Context context, final Class<? extends View> buttonClass) {
+        for (int i = recycledButtons.size() - 1; i >= 0; i--) {
+            final View button = recycledButtons.get(i);
+
+            if (button.getContext() == context && buttonClass.isInstance(button)) {
+                return recycledButtons.remove(i);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Releases a button to this pool. The button must have been removed from its parent.
+     */
+    public <T extends View & FloatingActionBindableChild> void putRecycledButton(final T button) {
+        if (button.getParent() != null || recycledButtons.size() >= maxRecycledButtons || recycledButtons.contains(button)) {
+            return;
+        }
+
+        button.setFabClickListener(null);
+        button.setExpanded(false);
+        recycledButtons.add(button);
+    }
+
+    public void clear() {
+        recycledButtons.clear();
+    }
+}
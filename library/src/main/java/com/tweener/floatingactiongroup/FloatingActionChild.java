@@ -0,0 +1,18 @@
+package com.tweener.floatingactiongroup;
+
+/**
+ * Contract between a {@link FloatingActionGroup} and the action buttons it holds, whatever the way they are rendered.
+ *
+ * @author Vivien Mahe
+ */
+public interface FloatingActionChild {
+
+    void setFabClickListener(FloatingActionGroup.OnFloatingActionGroupListener fabClickListener);
+
+    void setExpanded(boolean expanded);
+
+    /**
+     * Builds the content of this child, if it has been deferred. Called before the group expands.
+     */
+    void inflateContent();
+}
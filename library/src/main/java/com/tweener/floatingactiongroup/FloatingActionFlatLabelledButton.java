@@ -0,0 +1,278 @@
+package com.tweener.floatingactiongroup;
+
+import android.content.Context;
+import android.content.res.ColorStateList;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RectF;
+import android.graphics.drawable.Drawable;
+import android.support.annotation.NonNull;
+import android.support.v4.content.ContextCompat;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.AttributeSet;
+import android.view.MotionEvent;
+import android.view.View;
+
+import com.tweener.floatingactiongroup.util.DrawableUtils;
+import com.tweener.floatingactiongroup.util.Typefaces;
+
+/**
+ * Lightweight alternative to {@link FloatingActionLabelledButton}, drawing the label pill, its text and the FAB circle in a single view.<br>
+ * It accepts the same attributes and has the same click semantics, but replaces the LinearLayout/CardView/TextView/FloatingActionButton hierarchy
+ * by one view with cached text metrics and drawables. Elevation shadows are not drawn. A label too wide for the width given by the parent is
+ * ellipsized at its end.
+ *
+ * @author Vivien Mahe
+ */
+public class FloatingActionFlatLabelledButton extends View implements FloatingActionBindableChild, View.OnClickListener {
+
+    private static final String TAG = FloatingActionFlatLabelledButton.class.getSimpleName();
+
+    private final int paddingVert;
+    private final int paddingHorz;
+    private final int labelPadding;
+    private final int labelMarginRight;
+    private final float labelCornerRadius;
+    private final int fabSize;
+    private final int iconSize;
+
+    private final TextPaint labelTextPaint = new TextPaint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint labelBackgroundPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint fabPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final RectF labelBounds = new RectF();
+    private final Paint.FontMetrics fontMetrics = new Paint.FontMetrics();
+
+    private String label;
+    private float labelWidth;
+    private float labelBaseline;
+
+    // Label as drawn, ellipsized when the parent does not give it its full width
+    private CharSequence displayedLabel;
+    private float displayedLabelWidth;
+    private int ellipsizedWidth = -1;
+
+    private int srcResId;
+    private int srcColorTint;
+    private Drawable icon;
+    private ColorStateList backgroundNormal;
+    private int backgroundPressed;
+    private float fabCenterX;
+    private float fabCenterY;
+
+    private FloatingActionGroup.OnFloatingActionGroupListener fabClickListener;
+    private boolean isExpanded;
+
+    public FloatingActionFlatLabelledButton(final Context context) {
+        this(context, null);
+    }
+
+    public FloatingActionFlatLabelledButton(final Context context, final AttributeSet attrs) {
+        super(context, attrs);
+
+        final FloatingActionGroupSpec spec = FloatingActionGroupSpec.obtain(context);
+        paddingVert = spec.getPaddingVert();
+        paddingHorz = spec.getPaddingHorz();
+        labelPadding = spec.getLabelPadding();
+        labelMarginRight = spec.getLabelMarginRight();
+        labelCornerRadius = spec.getLabelCornerRadius();
+        fabSize = spec.getFlatFabSize();
+        iconSize = spec.getFlatIconSize();
+
+        labelTextPaint.setTextSize(spec.getLabelTextSize());
+        labelTextPaint.setColor(ContextCompat.getColor(context, R.color.falb_label_color));
+        labelBackgroundPaint.setColor(ContextCompat.getColor(context, R.color.favg_label_background));
+
+        final TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.FloatingActionLabelledButton);
+        final String label = ta.getString(R.styleable.FloatingActionLabelledButton_label);
+        final int srcResId = ta.getResourceId(R.styleable.FloatingActionLabelledButton_src, 0);
+        final int srcColorTint = ta.getColor(R.styleable.FloatingActionLabelledButton_srcTint, 0);
+        backgroundNormal = ta.getColorStateList(R.styleable.FloatingActionLabelledButton_backgroundNormal);
+        backgroundPressed = ta.getColor(R.styleable.FloatingActionLabelledButton_backgroundPressed, 0);
+        final String fontFileName = ta.getString(R.styleable.FloatingActionLabelledButton_fontFileName);
+        ta.recycle();
+
+        if (!TextUtils.isEmpty(fontFileName) && !isInEditMode()) {
+            labelTextPaint.setTypeface(Typefaces.createFromAsset(context.getAssets(), fontFileName));
+        }
+        labelTextPaint.getFontMetrics(fontMetrics);
+
+        setLabel(label);
+        updateIcon(srcResId, srcColorTint);
+
+        setOnClickListener(this);
+    }
+
+    /**
+     * Updates this button with the given action. Only the properties that actually changed are applied.
+     */
+    @Override
+    public void bind(final FloatingAction action) {
+        setId(action.getId());
+        setLabel(action.getLabel());
+        setIcon(action.getIconResId(), action.getIconTint());
+        setEnabled(action.isEnabled());
+    }
+
+    /**
+     * Sets the label and caches its metrics, so drawing it does not measure the text again.
+     */
+    public void setLabel(final String label) {
+        if (TextUtils.equals(this.label, label)) {
+            return;
+        }
+
+        this.label = label;
+        labelWidth = TextUtils.isEmpty(label) ? 0 : labelTextPaint.measureText(label);
+        displayedLabel = label;
+        displayedLabelWidth = labelWidth;
+        ellipsizedWidth = -1;
+
+        updateGeometry();
+        requestLayout();
+        invalidate();
+    }
+
+    public void setIcon(final int srcResId, final int srcColorTint) {
+        if (this.srcResId == srcResId && this.srcColorTint == srcColorTint) {
+            return;
+        }
+
+        updateIcon(srcResId, srcColorTint);
+    }
+
+    private void updateIcon(final int srcResId, final int srcColorTint) {
+        this.srcResId = srcResId;
+        this.srcColorTint = srcColorTint;
+        icon = DrawableUtils.getTintedDrawable(getContext(), srcResId, srcColorTint);
+
+        updateGeometry();
+        invalidate();
+    }
+
+    @Override
+    protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+        final float textHeight = fontMetrics.descent - fontMetrics.ascent;
+        final float labelHeight = textHeight + 2 * labelPadding;
+        final float labelChromeWidth = 2 * labelPadding + labelMarginRight;
+
+        if (MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED) {
+            updateDisplayedLabel(Integer.MAX_VALUE);
+        } else {
+            updateDisplayedLabel((int) (MeasureSpec.getSize(widthMeasureSpec) - 2 * paddingHorz - fabSize - labelChromeWidth));
+        }
+
+        final float pillWidth = displayedLabelWidth > 0 ? displayedLabelWidth + labelChromeWidth : 0;
+
+        final int width = (int) Math.ceil(2 * paddingHorz + pillWidth + fabSize);
+        final int height = (int) Math.ceil(2 * paddingVert + Math.max(labelHeight, fabSize));
+        setMeasuredDimension(resolveSize(width, widthMeasureSpec), resolveSize(height, heightMeasureSpec));
+
+        // The label may have been ellipsized differently without changing the size of this view
+        updateGeometry();
+    }
+
+    /**
+     * Ellipsizes the label if it is wider than the given width. The ellipsized label is kept while the available width does not change, so
+     * measuring again does not allocate.
+     */
+    private void updateDisplayedLabel(final int maxLabelWidth) {
+        if (TextUtils.isEmpty(label) || labelWidth <= maxLabelWidth) {
+            displayedLabel = label;
+            displayedLabelWidth = labelWidth;
+            ellipsizedWidth = -1;
+            return;
+        }
+
+        if (ellipsizedWidth == maxLabelWidth) {
+            return;
+        }
+
+        ellipsizedWidth = maxLabelWidth;
+        displayedLabel = TextUtils.ellipsize(label, labelTextPaint, Math.max(0, maxLabelWidth), TextUtils.TruncateAt.END);
+        displayedLabelWidth = displayedLabel.length() > 0 ? labelTextPaint.measureText(displayedLabel, 0, displayedLabel.length()) : 0;
+    }
+
+    @Override
+    protected void onSizeChanged(final int w, final int h, final int oldw, final int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        updateGeometry();
+    }
+
+    /**
+     * Positions the label and the FAB once per size or content change, so {@link #onDraw(Canvas)} only issues draw calls.
+     */
+    private void updateGeometry() {
+        final int w = getWidth();
+        final int h = getHeight();
+        final float centerY = h / 2f;
+        fabCenterX = w - paddingHorz - fabSize / 2f;
+        fabCenterY = centerY;
+
+        final float labelHeight = fontMetrics.descent - fontMetrics.ascent + 2 * labelPadding;
+        final float labelRight = w - paddingHorz - fabSize - labelMarginRight;
+        labelBounds.set(labelRight - displayedLabelWidth - 2 * labelPadding, centerY - labelHeight / 2f, labelRight, centerY + labelHeight / 2f);
+        labelBaseline = labelBounds.top + labelPadding - fontMetrics.ascent;
+
+        if (icon != null) {
+            final int left = (int) (fabCenterX - iconSize / 2f);
+            final int top = (int) (fabCenterY - iconSize / 2f);
+            icon.setBounds(left, top, left + iconSize, top + iconSize);
+        }
+    }
+
+    @Override
+    protected void onDraw(final Canvas canvas) {
+        if (displayedLabelWidth > 0) {
+            canvas.drawRoundRect(labelBounds, labelCornerRadius, labelCornerRadius, labelBackgroundPaint);
+            canvas.drawText(displayedLabel, 0, displayedLabel.length(), labelBounds.left + labelPadding, labelBaseline, labelTextPaint);
+        }
+
+        fabPaint.setColor(isPressed() && backgroundPressed != 0 ? backgroundPressed : getBackgroundColor());
+        canvas.drawCircle(fabCenterX, fabCenterY, fabSize / 2f, fabPaint);
+
+        if (icon != null) {
+            icon.draw(canvas);
+        }
+    }
+
+    @Override
+    protected void drawableStateChanged() {
+        super.drawableStateChanged();
+        invalidate();
+    }
+
+    @Override
+    public void onClick(@NonNull final View view) {
+        // Simply forwards this view click to another listener
+        if (fabClickListener != null) {
+            fabClickListener.onFloatingActionGroupChildClicked(this);
+        }
+    }
+
+    @Override
+    public boolean onTouchEvent(final MotionEvent event) {
+        // Let touches go through while the group is collapsed
+        return isExpanded && super.onTouchEvent(event);
+    }
+
+    @Override
+    public void setFabClickListener(final FloatingActionGroup.OnFloatingActionGroupListener fabClickListener) {
+        this.fabClickListener = fabClickListener;
+    }
+
+    @Override
+    public void setExpanded(final boolean expanded) {
+        isExpanded = expanded;
+    }
+
+    @Override
+    public void inflateContent() {
+        // Nothing to inflate, this button has no child views
+    }
+
+    private int getBackgroundColor() {
+        return backgroundNormal != null ? backgroundNormal.getColorForState(getDrawableState(), backgroundNormal.getDefaultColor()) : 0;
+    }
+}
@@ -3,11 +3,32 @@ package com.tweener.floatingactiongroup;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
+import android.graphics.Rect;
+import android.os.Build;
 import android.support.design.widget.FloatingActionButton;
 import android.util.AttributeSet;
+import android.util.SparseArray;
+import android.view.Display;
+import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewGroup;
+import android.view.animation.AnimationUtils;
+import android.view.animation.Interpolator;
 import android.widget.FrameLayout;
 
+import com.tweener.floatingactiongroup.animation.AnimationClock;
+import com.tweener.floatingactiongroup.animation.AnimationMetrics;
+import com.tweener.floatingactiongroup.animation.GroupAnimator;
+import com.tweener.floatingactiongroup.layout.GroupLayout;
+import com.tweener.floatingactiongroup.layout.HorizontalLayoutStrategy;
+import com.tweener.floatingactiongroup.layout.LayoutStrategy;
+import com.tweener.floatingactiongroup.layout.VerticalLayoutStrategy;
+import com.tweener.floatingactiongroup.util.ColorUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @author Vivien Mahe
  */
@@ -21,6 +42,71 @@ public abstract class FloatingActionGroup extends FrameLayout {
         void onFloatingActionGroupChildClicked(View view);
     }
 
+    public interface OnFloatingActionClickListener {
+        /**
+         * Fired when an action of the group has been clicked.
+         *
+         * @param group  the group the action belongs to
+         * @param itemId id of the action, as given to {@link #setActions(List)} or declared in the menu resource
+         * @param index  index of the action, 0 being the closest to the main FAB
+         */
+        void onFloatingActionClicked(FloatingActionGroup group, int itemId, int index);
+    }
+
+    public interface OnFloatingActionGroupAnimationListener {
+        /**
+         * Fired when an expand or collapse starts, or when a running animation is reversed. A change without animation is reported as an animation
+         * starting and ending right away.
+         */
+        void onFloatingActionGroupAnimationStart(FloatingActionGroup group, boolean expanding);
+
+        /**
+         * Fired on every frame of an animation.
+         *
+         * @param progress progress of the group, from 0 (collapsed) to 1 (expanded)
+         */
+        void onFloatingActionGroupAnimationProgress(FloatingActionGroup group, float progress);
+
+        void onFloatingActionGroupAnimationEnd(FloatingActionGroup group, boolean expanded);
+    }
+
+    public interface OnFloatingActionGroupMetricsListener {
+        /**
+         * Fired at the end of each expand or collapse animation. The metrics instance is reused for the next animation.
+         */
+        void onFloatingActionGroupAnimationMetrics(AnimationMetrics metrics);
+    }
+
+    /**
+     * States of a {@link FloatingActionGroup}. A group is expanding or collapsing while its children are being animated.
+     */
+    public enum State {
+        COLLAPSED,
+        EXPANDING,
+        EXPANDED,
+        COLLAPSING
+    }
+
+    private static final int ANIMATION_DURATION_DEFAULT = 300;
+    private static final float DEFAULT_REFRESH_RATE = 60f;
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    private static final int ANIMATION_STAGGER_DEFAULT = 0;
+    private static final boolean MAIN_FAB_SHOULD_ROTATE_DEFAULT = false;
+    private static final int MAIN_FAB_ROTATION_ANGLE_DEFAULT = 45;
+    private static final boolean MAIN_FAB_SHOULD_SCALE_DEFAULT = false;
+    private static final float MAIN_FAB_SCALE_VALUE_DEFAULT = 0.8f;
+    private static final int MAIN_FAB_COLOR_STEPS = 32;
+    private static final int ACTIONS_DIRECTION_UP = 0;
+    private static final int ACTIONS_DIRECTION_DOWN = 1;
+    private static final int ACTIONS_DIRECTION_LEFT = 2;
+    private static final int ACTIONS_DIRECTION_RIGHT = 3;
+    private static final int ACTIONS_DIRECTION_DEFAULT = ACTIONS_DIRECTION_UP;
+    private static final boolean CLIP_WHEN_COLLAPSED_DEFAULT = false;
+    private static final int SHADOW_MODE_NORMAL = 0;
+    private static final int SHADOW_MODE_FLAT = 1;
+    private static final int SHADOW_MODE_FLAT_BELOW_LOLLIPOP = 2;
+    private static final int SHADOW_MODE_DEFAULT = SHADOW_MODE_NORMAL;
+
     /**
      * Fired when this group has been expanded. Subclasses must implement their own related logic.
      *
@@ -35,28 +121,169 @@ public abstract class FloatingActionGroup extends FrameLayout {
      */
     protected abstract void onCollapsed(final boolean animate);
 
+    /**
+     * Fired every time the expand/collapse progress changed, either during an animation or after a jump. Subclasses can override this method to
+     * animate views that are not driven by the {@link GroupAnimator}, like the main FAB.
+     *
+     * @param progress progress of the group, from 0 (collapsed) to 1 (expanded)
+     */
+    protected void onAnimationProgress(final float progress) {
+    }
+
+    private final int menuResId;
+    private final int maxExpandedHeight;
+    private boolean flat;
     private int srcCollapsedResId;
     private int srcExpandedResId;
     private ColorStateList backgroundNormal;
     private int backgroundPressed;
     private ColorStateList backgroundExpanded;
-    private boolean isExpanded;
+    private final boolean mainFabShouldRotate;
+    private final int mainFabRotationAngle;
+    private final boolean mainFabShouldScale;
+    private final float mainFabScaleValue;
+    private State state;
+
+    private final FloatingActionGroupSpec spec;
+
+    // Tints of the main FAB from its normal to its expanded colors, built once so animating the color does not allocate
+    private ColorStateList[] mainFabColorRamp;
+    private int mainFabColorStep = -1;
 
     private FloatingActionButton mainFab;
+    private final GroupAnimator groupAnimator;
+
+    // When collapsed, drawing and touches are restricted to the main FAB, without changing the measured size of this group
+    private final boolean clipWhenCollapsed;
+    private final Rect collapsedClipBounds = new Rect();
+    private boolean clipped;
 
+    private LayoutStrategy layoutStrategy;
+    private final GroupLayout groupLayout = new GroupLayout();
+
+    // Copy-on-write arrays of listeners: adding or removing one replaces the array, so dispatching neither allocates nor sees concurrent changes
+    private OnFloatingActionGroupListener[] groupListeners = new OnFloatingActionGroupListener[0];
+    private OnFloatingActionClickListener[] clickListeners = new OnFloatingActionClickListener[0];
+    private OnFloatingActionGroupAnimationListener[] animationListeners = new OnFloatingActionGroupAnimationListener[0];
+
+    // Listener set with setOnFloatingActionGroupListener(), notified before the added ones. Kept protected for the subclasses using it.
     protected OnFloatingActionGroupListener listener;
 
+    // Wired once into every child when it is added, so changing the listeners of this group never touches the children
+    private final OnFloatingActionGroupListener childClickDispatcher = new OnFloatingActionGroupListener() {
+        @Override
+        public void onFloatingActionGroupExpanded() {
+        }
+
+        @Override
+        public void onFloatingActionGroupCollapsed() {
+        }
+
+        @Override
+        public void onFloatingActionGroupChildClicked(final View view) {
+            dispatchChildClicked(view);
+        }
+    };
+
+    private OnFloatingActionGroupMetricsListener metricsListener;
+    private AnimationMetrics metrics;
+
+    // Set while an animated expand or collapse is being measured, so jumps never report the metrics of a previous animation
+    private boolean metricsActive;
+
+    private FloatingActionButtonPool buttonPool;
+
+    // Buttons indexed by action id while diffing actions, kept to avoid allocating on each call
+    private final SparseArray<View> actionButtons = new SparseArray<>();
+    private final SparseArray<View> reusedButtons = new SparseArray<>();
+
+    // Measure/layout cache, invalidated as soon as anything in this group requests a layout
+    private boolean measureCacheDirty = true;
+    private boolean layoutCacheDirty = true;
+    private int cachedWidthMeasureSpec;
+    private int cachedHeightMeasureSpec;
+    private int cachedMeasuredWidth;
+    private int cachedMeasuredHeight;
+
     public FloatingActionGroup(final Context context, final AttributeSet attrs) {
         super(context, attrs);
 
+        spec = FloatingActionGroupSpec.obtain(context);
+
+        // Parsed once here for this class and its subclasses
         final TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.FloatingActionGroup);
         srcCollapsedResId = ta.getResourceId(R.styleable.FloatingActionGroup_srcCollapsed, 0);
         srcExpandedResId = ta.getResourceId(R.styleable.FloatingActionGroup_srcExpanded, 0);
         backgroundNormal = ta.getColorStateList(R.styleable.FloatingActionGroup_backgroundNormal);
         backgroundPressed = ta.getColor(R.styleable.FloatingActionGroup_backgroundPressed, 0);
         backgroundExpanded = ta.getColorStateList(R.styleable.FloatingActionGroup_backgroundExpanded);
-        isExpanded = ta.getBoolean(R.styleable.FloatingActionGroup_groupExpanded, false);
+        final boolean isExpanded = ta.getBoolean(R.styleable.FloatingActionGroup_groupExpanded, false);
+        final int animationStagger = ta.getInteger(R.styleable.FloatingActionGroup_animationStagger, ANIMATION_STAGGER_DEFAULT);
+        final int animationMode = ta.getInt(R.styleable.FloatingActionGroup_animationMode, GroupAnimator.MODE_FRAME);
+        final int animationDuration = ta.getInteger(R.styleable.FloatingActionGroup_animationDuration, ANIMATION_DURATION_DEFAULT);
+        final int animationInterpolatorResId = ta.getResourceId(R.styleable.FloatingActionGroup_animationInterpolator, 0);
+        mainFabShouldRotate = ta.getBoolean(R.styleable.FloatingActionGroup_mainFabShouldRotate, MAIN_FAB_SHOULD_ROTATE_DEFAULT);
+        mainFabRotationAngle = ta.getInteger(R.styleable.FloatingActionGroup_mainFabRotateAngle, MAIN_FAB_ROTATION_ANGLE_DEFAULT);
+        mainFabShouldScale = ta.getBoolean(R.styleable.FloatingActionGroup_mainFabShouldScale, MAIN_FAB_SHOULD_SCALE_DEFAULT);
+        mainFabScaleValue = ta.getFloat(R.styleable.FloatingActionGroup_mainFabScaleValue, MAIN_FAB_SCALE_VALUE_DEFAULT);
+        final int actionsDirection = ta.getInt(R.styleable.FloatingActionGroup_actionsDirection, ACTIONS_DIRECTION_DEFAULT);
+        clipWhenCollapsed = ta.getBoolean(R.styleable.FloatingActionGroup_clipWhenCollapsed, CLIP_WHEN_COLLAPSED_DEFAULT);
+        menuResId = ta.getResourceId(R.styleable.FloatingActionGroup_menu, 0);
+        final int shadowMode = ta.getInt(R.styleable.FloatingActionGroup_shadowMode, SHADOW_MODE_DEFAULT);
+        maxExpandedHeight = ta.getDimensionPixelSize(R.styleable.FloatingActionGroup_maxExpandedHeight, 0);
         ta.recycle();
+
+        // Below Lollipop, every FAB and label card builds and draws its own compat shadow
+        flat = shadowMode == SHADOW_MODE_FLAT || (shadowMode == SHADOW_MODE_FLAT_BELOW_LOLLIPOP && Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP);
+
+        layoutStrategy = createLayoutStrategy(actionsDirection);
+
+        state = isExpanded ? State.EXPANDED : State.COLLAPSED;
+
+        groupAnimator = new GroupAnimator(animationDuration, isExpanded ? 1 : 0);
+        groupAnimator.setStagger(animationStagger);
+        groupAnimator.setMode(animationMode);
+
+        if (animationInterpolatorResId != 0) {
+            groupAnimator.setInterpolator(AnimationUtils.loadInterpolator(context, animationInterpolatorResId));
+        }
+        groupAnimator.setOnGroupAnimationListener(new GroupAnimator.OnGroupAnimationListener() {
+            @Override
+            public void onGroupAnimationUpdate(final float progress) {
+                onAnimationProgress(progress);
+
+                final OnFloatingActionGroupAnimationListener[] listeners = animationListeners;
+                for (final OnFloatingActionGroupAnimationListener animationListener : listeners) {
+                    animationListener.onFloatingActionGroupAnimationProgress(FloatingActionGroup.this, progress);
+                }
+
+                // Bounds are restored before the first frame of an expand animation is drawn
+                if (clipped && state != State.COLLAPSED) {
+                    updateCollapsedClipBounds();
+                }
+            }
+
+            @Override
+            public void onGroupAnimationEnd(final float progress) {
+                state = progress >= 1 ? State.EXPANDED : State.COLLAPSED;
+
+                if (clipWhenCollapsed && clipped != (state == State.COLLAPSED)) {
+                    updateCollapsedClipBounds();
+                }
+
+                final OnFloatingActionGroupAnimationListener[] listeners = animationListeners;
+                for (final OnFloatingActionGroupAnimationListener animationListener : listeners) {
+                    animationListener.onFloatingActionGroupAnimationEnd(FloatingActionGroup.this, state == State.EXPANDED);
+                }
+
+                // Jumps have no frame to report
+                if (metricsActive && metrics.getFrameCount() > 0) {
+                    metricsListener.onFloatingActionGroupAnimationMetrics(metrics);
+                }
+
+                metricsActive = false;
+            }
+        });
     }
 
     /**
@@ -64,6 +291,10 @@ public abstract class FloatingActionGroup extends FrameLayout {
      */
     protected void configure(final Context context) {
         configureMainButton(context);
+
+        if (menuResId != 0) {
+            setMenu(menuResId);
+        }
     }
 
     private void configureMainButton(final Context context) {
@@ -72,12 +303,244 @@ public abstract class FloatingActionGroup extends FrameLayout {
         mainFab = (FloatingActionButton) view.findViewById(R.id.fag_main_fab);
         mainFab.setBackgroundTintList(backgroundNormal);
         mainFab.setRippleColor(backgroundPressed);
+        updateMainFabElevation();
 
         updateMainFabImage();
 
         mainFab.setOnClickListener(view1 -> onMainFabButtonClicked());
     }
 
+    @Override
+    public void addView(final View child, final int index, final ViewGroup.LayoutParams params) {
+        super.addView(child, index, params);
+
+        // Wired once here rather than on every layout pass
+        if (child instanceof FloatingActionChild) {
+            ((FloatingActionChild) child).setFabClickListener(childClickDispatcher);
+        }
+
+        // Recycled buttons may come from a group with another shadow mode
+        if (child instanceof FloatingActionLabelledButton) {
+            ((FloatingActionLabelledButton) child).setFlat(flat);
+        }
+    }
+
+    /**
+     * Removes the shadows of the main FAB and of every {@link FloatingActionLabelledButton} of this group, which are the most expensive part of
+     * drawing them below Lollipop. Defaults to the 'shadowMode' attribute.
+     */
+    public void setFlat(final boolean flat) {
+        this.flat = flat;
+        updateMainFabElevation();
+
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+
+            if (child instanceof FloatingActionLabelledButton) {
+                ((FloatingActionLabelledButton) child).setFlat(flat);
+            }
+        }
+    }
+
+    public boolean isFlat() {
+        return flat;
+    }
+
+    private void updateMainFabElevation() {
+        if (mainFab != null) {
+            mainFab.setCompatElevation(flat ? 0 : getResources().getDimension(R.dimen.fag_elevation));
+        }
+    }
+
+    /**
+     * Children changes (added, removed, visibility, label...) all end up requesting a layout of this group, which invalidates the measure/layout
+     * cache used by {@link #onMeasure(int, int)} and {@link #onLayout(boolean, int, int, int, int)}.
+     */
+    @Override
+    public void requestLayout() {
+        invalidateLayoutCache();
+        super.requestLayout();
+    }
+
+    /**
+     * Forces the next measure and layout passes to recompute the children positions.
+     */
+    public void invalidateLayoutCache() {
+        measureCacheDirty = true;
+        layoutCacheDirty = true;
+    }
+
+    /**
+     * Measures this group, unless nothing changed since the previous pass with the same measure specs. Subclasses should implement their
+     * measurement in {@link #onMeasureGroup(int, int)}; subclasses overriding this method must call through to it to keep the measure cache and the
+     * metrics.
+     */
+    @Override
+    protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+        final long start = metricsActive ? System.nanoTime() : 0;
+
+        if (measureCacheDirty || widthMeasureSpec != cachedWidthMeasureSpec || heightMeasureSpec != cachedHeightMeasureSpec) {
+            onMeasureGroup(widthMeasureSpec, heightMeasureSpec);
+
+            cachedWidthMeasureSpec = widthMeasureSpec;
+            cachedHeightMeasureSpec = heightMeasureSpec;
+            cachedMeasuredWidth = getMeasuredWidth();
+            cachedMeasuredHeight = getMeasuredHeight();
+            measureCacheDirty = false;
+        } else {
+            setMeasuredDimension(cachedMeasuredWidth, cachedMeasuredHeight);
+        }
+
+        if (metricsActive) {
+            metrics.addMeasureTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Measures the children of this group and sets its measured dimension. Only called when the children or the measure specs changed.<br>
+     * The default implementation computes the positions of every child with the {@link LayoutStrategy} of this group, once for both the layout and
+     * the animations.
+     */
+    protected void onMeasureGroup(final int widthMeasureSpec, final int heightMeasureSpec) {
+        measureChildren(widthMeasureSpec, heightMeasureSpec);
+
+        int visibleChildCount = 0;
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+
+            if (child.getVisibility() != GONE && child != mainFab) {
+                visibleChildCount++;
+            }
+        }
+
+        // Children are indexed from the closest to the main FAB to the farthest
+        groupLayout.reset(visibleChildCount);
+        groupLayout.setMainFabSize(mainFab.getMeasuredWidth(), mainFab.getMeasuredHeight());
+
+        int index = 0;
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+
+            if (child.getVisibility() != GONE && child != mainFab) {
+                groupLayout.setChildSize(index++, child.getMeasuredWidth(), child.getMeasuredHeight());
+            }
+        }
+
+        layoutStrategy.computeLayout(groupLayout);
+
+        setMeasuredDimension(groupLayout.getWidth(), groupLayout.getHeight());
+    }
+
+    /**
+     * Lays out the children of this group, unless it did not move nor change since the previous pass. Subclasses should implement their layout in
+     * {@link #onLayoutGroup(int, int, int, int)}; subclasses overriding this method must call through to it to keep the layout cache and the metrics.
+     */
+    @Override
+    protected void onLayout(final boolean changed, final int l, final int t, final int r, final int b) {
+        final long start = metricsActive ? System.nanoTime() : 0;
+
+        if (changed || layoutCacheDirty) {
+            layoutCacheDirty = false;
+            onLayoutGroup(l, t, r, b);
+            updateCollapsedClipBounds();
+        }
+
+        if (metricsActive) {
+            metrics.addLayoutTime(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Lays out the children of this group. Only called when this group moved, resized, or something changed since the previous pass.<br>
+     * The default implementation applies the positions computed by {@link #onMeasureGroup(int, int)}, and registers the children in the
+     * {@link GroupAnimator} with their collapsed offsets.
+     */
+    protected void onLayoutGroup(final int l, final int t, final int r, final int b) {
+        groupAnimator.clearChildren();
+
+        int index = 0;
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount && index < groupLayout.getChildCount(); i++) {
+            final View child = getChildAt(i);
+
+            if (child.getVisibility() == GONE || child == mainFab) {
+                continue;
+            }
+
+            final int childLeft = groupLayout.getChildLeft(index);
+            final int childTop = groupLayout.getChildTop(index);
+            child.layout(childLeft, childTop, childLeft + child.getMeasuredWidth(), childTop + child.getMeasuredHeight());
+
+            // Children are registered from the closest to the main FAB to the farthest, so the stagger fans them out from it
+            groupAnimator.addChild(child, groupLayout.getCollapsedOffsetX(index), groupLayout.getCollapsedOffsetY(index));
+            index++;
+        }
+
+        // Keeps the children where the running animation (or the current state) expects them
+        groupAnimator.applyProgress();
+
+        final int mainLeft = groupLayout.getMainFabLeft();
+        final int mainTop = groupLayout.getMainFabTop();
+        mainFab.layout(mainLeft, mainTop, mainLeft + mainFab.getMeasuredWidth(), mainTop + mainFab.getMeasuredHeight());
+    }
+
+    /**
+     * Sets how the children of this group are placed around the main FAB. Defaults to the strategy selected by the 'actionsDirection' attribute.
+     */
+    public void setLayoutStrategy(final LayoutStrategy layoutStrategy) {
+        this.layoutStrategy = layoutStrategy;
+        requestLayout();
+    }
+
+    private LayoutStrategy createLayoutStrategy(final int actionsDirection) {
+        switch (actionsDirection) {
+            case ACTIONS_DIRECTION_DOWN:
+                return new VerticalLayoutStrategy(VerticalLayoutStrategy.DIRECTION_DOWN, spec.getMarginBetweenFabs(), spec.getPaddingVert(), spec.getPaddingHorz());
+            case ACTIONS_DIRECTION_LEFT:
+                return new HorizontalLayoutStrategy(HorizontalLayoutStrategy.DIRECTION_LEFT, spec.getMarginBetweenFabs(), spec.getPaddingHorz(), spec.getPaddingVert());
+            case ACTIONS_DIRECTION_RIGHT:
+                return new HorizontalLayoutStrategy(HorizontalLayoutStrategy.DIRECTION_RIGHT, spec.getMarginBetweenFabs(), spec.getPaddingHorz(), spec.getPaddingVert());
+            case ACTIONS_DIRECTION_UP:
+            default:
+                return new VerticalLayoutStrategy(VerticalLayoutStrategy.DIRECTION_UP, spec.getMarginBetweenFabs(), spec.getPaddingVert(), spec.getPaddingHorz());
+        }
+    }
+
+    /**
+     * With 'clipWhenCollapsed', restricts the drawing of this collapsed group to its main FAB and the shadow around it, so the invisible area of the
+     * children does not inflate dirty regions. The full bounds are restored while animating and when expanded.
+     */
+    private void updateCollapsedClipBounds() {
+        if (!clipWhenCollapsed || mainFab == null) {
+            return;
+        }
+
+        clipped = state == State.COLLAPSED;
+
+        if (clipped) {
+            final int shadowSize = (int) Math.ceil(2 * mainFab.getCompatElevation());
+            collapsedClipBounds.set(mainFab.getLeft() - shadowSize, mainFab.getTop() - shadowSize, mainFab.getRight() + shadowSize,
+                    mainFab.getBottom() + shadowSize);
+            setClipBounds(collapsedClipBounds);
+        } else {
+            setClipBounds(null);
+        }
+    }
+
+    /**
+     * A clipped group lets the touches outside of its main FAB go to the views under it.
+     */
+    @Override
+    public boolean dispatchTouchEvent(final MotionEvent ev) {
+        if (clipped && ev.getActionMasked() == MotionEvent.ACTION_DOWN && !collapsedClipBounds.contains((int) ev.getX(), (int) ev.getY())) {
+            return false;
+        }
+
+        return super.dispatchTouchEvent(ev);
+    }
+
     @Override
     protected boolean isChildrenDrawingOrderEnabled() {
         return true;
@@ -101,6 +564,180 @@ public abstract class FloatingActionGroup extends FrameLayout {
         return mainFab;
     }
 
+    /**
+     * Returns the animator driving the children of this group. Subclasses register their children in it once laid out, and animate it from
+     * {@link #onExpanded(boolean)} and {@link #onCollapsed(boolean)}.
+     */
+    protected GroupAnimator getGroupAnimator() {
+        return groupAnimator;
+    }
+
+    /**
+     * Moves the children of this group to the given progress, animated or not. A running animation is reversed from its current progress.
+     */
+    protected void animateGroupTo(final float progress, final boolean animate) {
+        final boolean expanding = progress > groupAnimator.getProgress();
+
+        final OnFloatingActionGroupAnimationListener[] listeners = animationListeners;
+        for (final OnFloatingActionGroupAnimationListener animationListener : listeners) {
+            animationListener.onFloatingActionGroupAnimationStart(this, expanding);
+        }
+
+        if (metrics != null) {
+            // A reversed animation is reported as one animation
+            if (animate && metricsActive && groupAnimator.isRunning()) {
+                metrics.setExpanding(expanding);
+            } else {
+                metrics.start(expanding, getFrameIntervalNanos());
+            }
+
+            metricsActive = animate;
+        }
+
+        if (animate) {
+            groupAnimator.animateTo(progress);
+        } else {
+            groupAnimator.jumpTo(progress);
+        }
+    }
+
+    /**
+     * Updates the expanded state of every {@link FloatingActionChild} of this group. Deferred buttons are inflated before expanding: the
+     * layout pass they trigger updates the children positions in the {@link GroupAnimator} before the first animated frame is drawn.
+     */
+    protected void setChildrenExpanded(final boolean expanded) {
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+
+            if (child instanceof FloatingActionChild) {
+                final FloatingActionChild button = (FloatingActionChild) child;
+
+                if (expanded) {
+                    button.inflateContent();
+                }
+
+                button.setExpanded(expanded);
+            }
+        }
+    }
+
+    /**
+     * Sets the delay, in milliseconds, between the start of the animation of two consecutive children.
+     */
+    public void setAnimationStagger(final long stagger) {
+        groupAnimator.setStagger(stagger);
+    }
+
+    /**
+     * Sets the duration, in milliseconds, of the animation of each child.
+     */
+    public void setAnimationDuration(final long duration) {
+        groupAnimator.setDuration(duration);
+    }
+
+    public void setAnimationInterpolator(final Interpolator interpolator) {
+        groupAnimator.setInterpolator(interpolator);
+    }
+
+    /**
+     * Sets the clock the animations of this group run on. Defaults to the {@link android.view.Choreographer}; use a
+     * {@link com.tweener.floatingactiongroup.animation.ManualAnimationClock} to step them frame by frame. A running animation ends at its target.
+     */
+    public void setAnimationClock(final AnimationClock clock) {
+        groupAnimator.setClock(clock);
+    }
+
+    /**
+     * Sets how the children are animated: {@link GroupAnimator#MODE_FRAME} (default) or {@link GroupAnimator#MODE_HARDWARE_LAYER}, which is cheaper
+     * on low-end devices.
+     */
+    public void setAnimationMode(final int animationMode) {
+        groupAnimator.setMode(animationMode);
+    }
+
+    /**
+     * Rotates, scales and tints the main FAB according to the current progress of the {@link GroupAnimator} and the 'mainFabShouldRotate',
+     * 'mainFabShouldScale' and 'backgroundExpanded' attributes. Subclasses typically call it from {@link #onAnimationProgress(float)}.
+     */
+    protected void applyMainFabProgress() {
+        final float animatedValue = groupAnimator.getInterpolatedProgress();
+
+        // Rotate main FAB 45 degrees clockwise when group expanded.
+        if (mainFabShouldRotate) {
+            mainFab.setRotation(mainFabRotationAngle * animatedValue);
+        }
+
+        // Scale main FAB
+        if (mainFabShouldScale) {
+            final float scale = 1.0f + ((mainFabScaleValue - 1.0f) * animatedValue);
+            mainFab.setScaleX(scale);
+            mainFab.setScaleY(scale);
+        }
+
+        // Change color main FAB
+        final ColorStateList[] colorRamp = getMainFabColorRamp();
+        if (colorRamp != null) {
+            final int step = Math.round(animatedValue * (MAIN_FAB_COLOR_STEPS - 1));
+
+            // Only push a new tint when the color actually changed
+            if (step != mainFabColorStep) {
+                mainFabColorStep = step;
+                mainFab.setBackgroundTintList(colorRamp[step]);
+            }
+        }
+    }
+
+    private ColorStateList[] getMainFabColorRamp() {
+        if (mainFabColorRamp == null) {
+            if (backgroundExpanded == null || backgroundNormal == null) {
+                return null;
+            }
+
+            final int startColor = backgroundNormal.getDefaultColor();
+            final int endColor = backgroundExpanded.getDefaultColor();
+
+            mainFabColorRamp = new ColorStateList[MAIN_FAB_COLOR_STEPS];
+            for (int i = 1; i < MAIN_FAB_COLOR_STEPS - 1; i++) {
+                final float fraction = i / (float) (MAIN_FAB_COLOR_STEPS - 1);
+                mainFabColorRamp[i] = ColorStateList.valueOf(ColorUtils.blend(fraction, startColor, endColor));
+            }
+
+            // At rest, the main FAB keeps the stateful lists, with their pressed and disabled colors
+            mainFabColorRamp[0] = backgroundNormal;
+            mainFabColorRamp[MAIN_FAB_COLOR_STEPS - 1] = backgroundExpanded;
+        }
+
+        return mainFabColorRamp;
+    }
+
+    protected FloatingActionGroupSpec getSpec() {
+        return spec;
+    }
+
+    protected boolean shouldMainFabRotate() {
+        return mainFabShouldRotate;
+    }
+
+    protected int getMainFabRotationAngle() {
+        return mainFabRotationAngle;
+    }
+
+    protected boolean shouldMainFabScale() {
+        return mainFabShouldScale;
+    }
+
+    protected float getMainFabScaleValue() {
+        return mainFabScaleValue;
+    }
+
+    /**
+     * Returns the 'maxExpandedHeight' attribute of this group, in pixels, or 0 if not set. Only used by the groups supporting an overflow mode.
+     */
+    protected int getMaxExpandedHeightAttribute() {
+        return maxExpandedHeight;
+    }
+
     public ColorStateList getBackgroundNormal() {
         return backgroundNormal;
     }
@@ -109,40 +746,207 @@ public abstract class FloatingActionGroup extends FrameLayout {
         return backgroundExpanded;
     }
 
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Returns {@code true} if this group is expanded or expanding.
+     */
     public boolean isExpanded() {
-        return isExpanded;
+        return state == State.EXPANDED || state == State.EXPANDING;
     }
 
+    /**
+     * Returns {@code true} if this group is collapsed or collapsing.
+     */
     public boolean isCollapsed() {
-        return !isExpanded;
+        return !isExpanded();
     }
 
     private void onMainFabButtonClicked() {
         toggle(true);
     }
 
+    /**
+     * Expands this group if it is collapsed or collapsing, collapses it otherwise. When toggled during an animation, the animation is reversed from
+     * its current progress. Toggles happening within the same frame are coalesced by the {@link GroupAnimator}.
+     *
+     * @param animate animate expansion or collapse
+     */
     public void toggle(final boolean animate) {
+        final boolean expand = isCollapsed();
+
         if (listener != null) {
-            if (isExpanded) {
+            if (expand) {
+                listener.onFloatingActionGroupExpanded();
+            } else {
                 listener.onFloatingActionGroupCollapsed();
+            }
+        }
+
+        final OnFloatingActionGroupListener[] listeners = groupListeners;
+        for (final OnFloatingActionGroupListener groupListener : listeners) {
+            if (expand) {
+                groupListener.onFloatingActionGroupExpanded();
             } else {
-                listener.onFloatingActionGroupExpanded();
+                groupListener.onFloatingActionGroupCollapsed();
             }
         }
 
-        if (isExpanded) {
-            onCollapsed(animate);
-        } else {
+        if (expand) {
+            state = animate ? State.EXPANDING : State.EXPANDED;
             onExpanded(animate);
+        } else {
+            state = animate ? State.COLLAPSING : State.COLLAPSED;
+            onCollapsed(animate);
         }
 
-        isExpanded = !isExpanded;
-
-        if (!onAnimateMainFab(isExpanded)) {
+        if (!onAnimateMainFab(expand)) {
             updateMainFabImage();
         }
     }
 
+    /**
+     * Populates this group from a list of actions, the first action being the closest to the main FAB.<br>
+     * The list is diffed against the current children by id: buttons with a matching id are reused and only their changed properties are updated,
+     * buttons whose id is not in the list anymore are removed (and released to the {@link FloatingActionButtonPool} if any), then missing ones are
+     * acquired from the pool or created with {@link #onCreateActionButton()}. Releasing the removed buttons first lets them be rebound to the new
+     * actions, so replacing some actions does not inflate new buttons.
+     *
+     * @param actions actions to display, with unique ids
+     */
+    public void setActions(final List<FloatingAction> actions) {
+        // Children without id cannot be matched with an action
+        for (int i = getChildCount() - 1; i >= 0; i--) {
+            final View child = getChildAt(i);
+
+            if (child == mainFab) {
+                continue;
+            }
+
+            if (child.getId() == View.NO_ID) {
+                removeViewAt(i);
+                recycleActionButton(child);
+            } else {
+                actionButtons.put(child.getId(), child);
+            }
+        }
+
+        final int actionCount = actions.size();
+        for (int i = 0; i < actionCount; i++) {
+            final int id = actions.get(i).getId();
+            final View button = actionButtons.get(id);
+
+            if (button instanceof FloatingActionBindableChild) {
+                actionButtons.remove(id);
+                reusedButtons.put(id, button);
+            }
+        }
+
+        // Whatever is not reused is not part of the actions anymore, and is released before acquiring the new buttons
+        for (int i = 0; i < actionButtons.size(); i++) {
+            final View button = actionButtons.valueAt(i);
+            removeView(button);
+            recycleActionButton(button);
+        }
+        actionButtons.clear();
+
+        int index = indexOfChild(mainFab) + 1;
+        for (int i = 0; i < actionCount; i++) {
+            final FloatingAction action = actions.get(i);
+            final View reusedButton = reusedButtons.get(action.getId());
+            final View button;
+
+            if (reusedButton != null) {
+                reusedButtons.remove(action.getId());
+                button = reusedButton;
+            } else {
+                button = obtainActionButton();
+            }
+
+            final FloatingActionBindableChild bindableButton = (FloatingActionBindableChild) button;
+            bindableButton.bind(action);
+
+            // Only moves the buttons that are not already at the right place
+            if (getChildAt(index) != button) {
+                if (button.getParent() == this) {
+                    removeView(button);
+                }
+
+                addView(button, index);
+                bindableButton.setExpanded(isExpanded());
+            }
+
+            index++;
+        }
+    }
+
+    /**
+     * Populates this group from a menu resource, see {@link #setActions(List)}. The menu is parsed once per configuration and shared with every group
+     * using it. The id of each item is delivered to the {@link OnFloatingActionClickListener}s of this group.
+     *
+     * @param menuResId menu resource id
+     */
+    public void setMenu(final int menuResId) {
+        setActions(FloatingActionMenus.obtain(getContext(), menuResId));
+    }
+
+    /**
+     * Removes all the action buttons of this group, releasing them to the pool if any.
+     */
+    public void clearActions() {
+        setActions(Collections.<FloatingAction>emptyList());
+    }
+
+    /**
+     * Sets the pool this group acquires its action buttons from and releases them to. The same pool can be shared between several groups of the
+     * same Activity.
+     */
+    public void setButtonPool(final FloatingActionButtonPool buttonPool) {
+        this.buttonPool = buttonPool;
+    }
+
+    public FloatingActionButtonPool getButtonPool() {
+        return buttonPool;
+    }
+
+    private View obtainActionButton() {
+        // A button from another Context would leak it, and be themed after it, so it is left in the pool for the groups of its Context
+        final View recycledButton = buttonPool != null ? buttonPool.getRecycledButton(getContext(), getActionButtonClass()) : null;
+        final View button = recycledButton != null ? recycledButton : onCreateActionButton();
+
+        if (!(button instanceof FloatingActionBindableChild)) {
+            throw new IllegalStateException("onCreateActionButton() must return a view implementing FloatingActionBindableChild");
+        }
+
+        return button;
+    }
+
+    private void recycleActionButton(final View button) {
+        if (buttonPool != null && button instanceof FloatingActionBindableChild) {
+            buttonPool.putRecycledButton((View & FloatingActionBindableChild) button);
+        }
+    }
+
+    /**
+     * Creates a new button for an action added with {@link #setActions(List)}. Subclasses can override this method to style their buttons, or to
+     * use {@link FloatingActionFlatLabelledButton}s, together with {@link #getActionButtonClass()}.
+     *
+     * @return a view implementing {@link FloatingActionBindableChild}
+     */
+    protected View onCreateActionButton() {
+        return new FloatingActionLabelledButton(getContext());
+    }
+
+    /**
+     * Returns the class of the buttons created by {@link #onCreateActionButton()}. Only the recycled buttons of this class are acquired from the
+     * {@link FloatingActionButtonPool}.
+     */
+    protected Class<? extends View> getActionButtonClass() {
+        return FloatingActionLabelledButton.class;
+    }
+
     @Override
     public float getScaleX() {
         return isExpanded() ? super.getScaleX() : mainFab.getScaleX();
@@ -175,12 +979,131 @@ public abstract class FloatingActionGroup extends FrameLayout {
         }
     }
 
+    /**
+     * Sets a listener receiving the timings of each expand and collapse animation, or {@code null} to stop measuring them.
+     */
+    public void setOnFloatingActionGroupMetricsListener(final OnFloatingActionGroupMetricsListener metricsListener) {
+        this.metricsListener = metricsListener;
+        metrics = metricsListener != null ? new AnimationMetrics() : null;
+        metricsActive = false;
+        groupAnimator.setMetrics(metrics);
+    }
+
+    private long getFrameIntervalNanos() {
+        final Display display = getDisplay();
+        final float refreshRate = display != null ? display.getRefreshRate() : DEFAULT_REFRESH_RATE;
+        return (long) (NANOS_PER_SECOND / (refreshRate > 0 ? refreshRate : DEFAULT_REFRESH_RATE));
+    }
+
+    /**
+     * Sets the listener notified before the ones added with {@link #addOnFloatingActionGroupListener(OnFloatingActionGroupListener)}, which are
+     * kept.
+     */
     public void setOnFloatingActionGroupListener(final OnFloatingActionGroupListener listener) {
         this.listener = listener;
     }
 
+    /**
+     * Adds a listener notified when this group is expanded or collapsed, and when one of its children is clicked. Listeners are notified in the
+     * order they have been added.
+     */
+    public void addOnFloatingActionGroupListener(final OnFloatingActionGroupListener listener) {
+        groupListeners = append(groupListeners, listener);
+    }
+
+    public void removeOnFloatingActionGroupListener(final OnFloatingActionGroupListener listener) {
+        groupListeners = remove(groupListeners, listener);
+    }
+
+    /**
+     * Adds a listener notified with the id and the index of the clicked actions. Listeners are notified in the order they have been added.
+     */
+    public void addOnFloatingActionClickListener(final OnFloatingActionClickListener listener) {
+        clickListeners = append(clickListeners, listener);
+    }
+
+    public void removeOnFloatingActionClickListener(final OnFloatingActionClickListener listener) {
+        clickListeners = remove(clickListeners, listener);
+    }
+
+    /**
+     * Adds a listener notified when the expand and collapse animations start, progress and end. Listeners are notified in the order they have been
+     * added.
+     */
+    public void addOnFloatingActionGroupAnimationListener(final OnFloatingActionGroupAnimationListener listener) {
+        animationListeners = append(animationListeners, listener);
+    }
+
+    public void removeOnFloatingActionGroupAnimationListener(final OnFloatingActionGroupAnimationListener listener) {
+        animationListeners = remove(animationListeners, listener);
+    }
+
+    private void dispatchChildClicked(final View view) {
+        if (listener != null) {
+            listener.onFloatingActionGroupChildClicked(view);
+        }
+
+        final OnFloatingActionGroupListener[] listeners = groupListeners;
+        for (final OnFloatingActionGroupListener groupListener : listeners) {
+            groupListener.onFloatingActionGroupChildClicked(view);
+        }
+
+        final OnFloatingActionClickListener[] actionListeners = clickListeners;
+        if (actionListeners.length == 0) {
+            return;
+        }
+
+        final int index = getActionIndex(view);
+        for (final OnFloatingActionClickListener clickListener : actionListeners) {
+            clickListener.onFloatingActionClicked(this, view.getId(), index);
+        }
+    }
+
+    /**
+     * Returns the index of the given child among the actions of this group, 0 being the closest to the main FAB, or -1 if it is not one of them.
+     */
+    protected int getActionIndex(final View view) {
+        int index = 0;
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+
+            if (child == view) {
+                return index;
+            }
+
+            if (child != mainFab && child.getVisibility() != GONE) {
+                index++;
+            }
+        }
+
+        return -1;
+    }
+
+    private static <T> T[] append(final T[] listeners, final T listener) {
+        if (listener == null) {
+            return listeners;
+        }
+
+        final T[] newListeners = Arrays.copyOf(listeners, listeners.length + 1);
+        newListeners[listeners.length] = listener;
+        return newListeners;
+    }
+
+    private static <T> T[] remove(final T[] listeners, final T listener) {
+        for (int i = 0; i < listeners.length; i++) {
+            if (listeners[i] == listener) {
+                final T[] newListeners = Arrays.copyOf(listeners, listeners.length - 1);
+                System.arraycopy(listeners, i + 1, newListeners, i, listeners.length - i - 1);
+                return newListeners;
+            }
+        }
+
+        return listeners;
+    }
+
     private void updateMainFabImage() {
-        mainFab.setImageResource(isExpanded ? srcExpandedResId : srcCollapsedResId);
+        mainFab.setImageResource(isExpanded() ? srcExpandedResId : srcCollapsedResId);
     }
 }
 
@@ -0,0 +1,169 @@
+package com.tweener.floatingactiongroup;
+
+import android.content.Context;
+import android.support.annotation.NonNull;
+import android.support.design.widget.CoordinatorLayout;
+import android.support.v4.view.ViewCompat;
+import android.support.v4.view.animation.FastOutSlowInInterpolator;
+import android.util.AttributeSet;
+import android.view.View;
+import android.view.ViewGroup;
+import android.view.animation.Interpolator;
+
+/**
+ * {@link CoordinatorLayout.Behavior} sliding a {@link FloatingActionGroup} out of the screen when the content scrolls down, and back when it scrolls
+ * up. An expanded group is collapsed before being hidden.<br>
+ * Nested scroll events only record the requested state: it is applied at most once per frame, by translating the group, so scrolling never triggers
+ * a layout pass. A hidden group is moved out of the screen again after each layout of its parent.<br>
+ * To use it, set {@code app:layout_behavior="com.tweener.floatingactiongroup.FloatingActionGroupScrollBehavior"} on a group laid out in a
+ * {@link CoordinatorLayout}.
+ *
+ * @author Vivien Mahe
+ */
+public class FloatingActionGroupScrollBehavior extends CoordinatorLayout.Behavior<FloatingActionGroup> {
+
+    private static final String TAG = FloatingActionGroupScrollBehavior.class.getSimpleName();
+
+    private static final int ANIMATION_DURATION_DEFAULT = 200;
+
+    private final Interpolator interpolator = new FastOutSlowInInterpolator();
+
+    // State applied on the next frame. The runnable is created once per group, so scrolling does not allocate
+    private ApplyStateRunnable applyStateRunnable;
+    private boolean hideRequested;
+    private boolean updatePosted;
+
+    private boolean hidden;
+
+    public FloatingActionGroupScrollBehavior() {
+        super();
+    }
+
+    public FloatingActionGroupScrollBehavior(final Context context, final AttributeSet attrs) {
+        super(context, attrs);
+    }
+
+    @Override
+    public void onDetachedFromLayoutParams() {
+        cancelPendingUpdate();
+        applyStateRunnable = null;
+        super.onDetachedFromLayoutParams();
+    }
+
+    @Override
+    public boolean onLayoutChild(@NonNull final CoordinatorLayout parent, @NonNull final FloatingActionGroup child, final int layoutDirection) {
+        parent.onLayoutChild(child, layoutDirection);
+
+        // The hidden position depends on the position of the group, which may have changed
+        if (hidden) {
+            child.animate().cancel();
+            child.setTranslationY(getHiddenTranslationY(child));
+        }
+
+        return true;
+    }
+
+    @Override
+    public boolean onStartNestedScroll(@NonNull final CoordinatorLayout coordinatorLayout, @NonNull final FloatingActionGroup child,
+                                       @NonNull final View directTargetChild, @NonNull final View target, final int axes, final int type) {
+        return (axes & ViewCompat.SCROLL_AXIS_VERTICAL) != 0;
+    }
+
+    @Override
+    public void onNestedScroll(@NonNull final CoordinatorLayout coordinatorLayout, @NonNull final FloatingActionGroup child,
+                               @NonNull final View target, final int dxConsumed, final int dyConsumed, final int dxUnconsumed,
+                               final int dyUnconsumed, final int type) {
+        final int dy = dyConsumed + dyUnconsumed;
+
+        if (dy != 0) {
+            requestHidden(child, dy > 0);
+        }
+    }
+
+    /**
+     * Returns {@code true} if the group has been slid out of the screen, or is being slid out.
+     */
+    public boolean isHidden() {
+        return hidden;
+    }
+
+    /**
+     * Slides the group out of the screen, or back. Like scroll events, the request is applied on the next frame. A group that is not attached to a
+     * window is moved right away.
+     */
+    public void requestHidden(final FloatingActionGroup group, final boolean hide) {
+        hideRequested = hide;
+
+        if (applyStateRunnable == null || applyStateRunnable.group != group) {
+            cancelPendingUpdate();
+            applyStateRunnable = new ApplyStateRunnable(group);
+        }
+
+        // A detached group has no frame to wait for
+        if (!ViewCompat.isAttachedToWindow(group)) {
+            cancelPendingUpdate();
+            applyState(group, false);
+            return;
+        }
+
+        // Every request within the same frame is coalesced into the last one
+        if (!updatePosted) {
+            updatePosted = true;
+            ViewCompat.postOnAnimation(group, applyStateRunnable);
+        }
+    }
+
+    private void cancelPendingUpdate() {
+        if (updatePosted) {
+            updatePosted = false;
+            applyStateRunnable.group.removeCallbacks(applyStateRunnable);
+        }
+    }
+
+    private void applyState(final FloatingActionGroup group, final boolean animate) {
+        updatePosted = false;
+
+        if (hideRequested == hidden) {
+            return;
+        }
+
+        hidden = hideRequested;
+
+        if (hidden && group.isExpanded()) {
+            group.toggle(animate);
+        }
+
+        final float translationY = hidden ? getHiddenTranslationY(group) : 0;
+
+        if (animate) {
+            group.animate()
+                    .translationY(translationY)
+                    .setInterpolator(interpolator)
+                    .setDuration(ANIMATION_DURATION_DEFAULT);
+        } else {
+            group.animate().cancel();
+            group.setTranslationY(translationY);
+        }
+    }
+
+    /**
+     * Distance moving the group below the bottom edge of its parent, from its current layout position.
+     */
+    private static float getHiddenTranslationY(final FloatingActionGroup group) {
+        final ViewGroup parent = (ViewGroup) group.getParent();
+        return parent != null ? parent.getHeight() - group.getTop() : group.getHeight();
+    }
+
+    private final class ApplyStateRunnable implements Runnable {
+        private final FloatingActionGroup group;
+
+        private ApplyStateRunnable(final FloatingActionGroup group) {
+            this.group = group;
+        }
+
+        @Override
+        public void run() {
+            applyState(group, true);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.tweener.floatingactiongroup;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.Resources;
+import android.util.LruCache;
+
+/**
+ * Immutable dimensions shared by every {@link FloatingActionGroup} and their buttons, parsed once per {@link Configuration}.<br>
+ * A configuration change produces a new spec instead of mutating the existing one, so views created for different configurations never see each
+ * other's dimensions.
+ *
+ * @author Vivien Mahe
+ */
+public final class FloatingActionGroupSpec {
+
+    private static final int MAX_CACHED_SPECS = 4;
+
+    private static final LruCache<Configuration, FloatingActionGroupSpec> SPECS = new LruCache<>(MAX_CACHED_SPECS);
+
+    private final int marginBetweenFabs;
+    private final int paddingVert;
+    private final int paddingHorz;
+    private final int labelPadding;
+    private final int labelMarginRight;
+    private final float labelCornerRadius;
+    private final float labelTextSize;
+    private final int flatFabSize;
+    private final int flatIconSize;
+    private final int circularRadial;
+    private final int circularPadding;
+
+    private FloatingActionGroupSpec(final Resources resources) {
+        marginBetweenFabs = (int) resources.getDimension(R.dimen.favg_margin_between_fab);
+        paddingVert = (int) resources.getDimension(R.dimen.favg_padding_vert);
+        paddingHorz = (int) resources.getDimension(R.dimen.falb_padding_horz);
+        labelPadding = (int) resources.getDimension(R.dimen.favg_label_padding);
+        labelMarginRight = (int) resources.getDimension(R.dimen.favg_card_margin_right);
+        labelCornerRadius = resources.getDimension(R.dimen.favg_card_corner_radius);
+        labelTextSize = resources.getDimension(R.dimen.falb_label_text);
+        flatFabSize = (int) resources.getDimension(R.dimen.falb_flat_fab_size);
+        flatIconSize = (int) resources.getDimension(R.dimen.falb_flat_icon_size);
+        circularRadial = (int) resources.getDimension(R.dimen.facg_radial);
+        circularPadding = (int) resources.getDimension(R.dimen.facg_padding);
+    }
+
+    /**
+     * Returns the spec matching the current configuration of the given {@link Context}, parsing it on first use.
+     */
+    public static FloatingActionGroupSpec obtain(final Context context) {
+        final Resources resources = context.getResources();
+        final Configuration configuration = resources.getConfiguration();
+
+        FloatingActionGroupSpec spec = SPECS.get(configuration);
+        if (spec == null) {
+            spec = new FloatingActionGroupSpec(resources);
+
+            // The framework may update its configuration in place, so the key must be a copy
+            SPECS.put(new Configuration(configuration), spec);
+        }
+
+        return spec;
+    }
+
+    public int getMarginBetweenFabs() {
+        return marginBetweenFabs;
+    }
+
+    public int getPaddingVert() {
+        return paddingVert;
+    }
+
+    public int getPaddingHorz() {
+        return paddingHorz;
+    }
+
+    public int getLabelPadding() {
+        return labelPadding;
+    }
+
+    public int getLabelMarginRight() {
+        return labelMarginRight;
+    }
+
+    public float getLabelCornerRadius() {
+        return labelCornerRadius;
+    }
+
+    public float getLabelTextSize() {
+        return labelTextSize;
+    }
+
+    public int getFlatFabSize() {
+        return flatFabSize;
+    }
+
+    public int getFlatIconSize() {
+        return flatIconSize;
+    }
+
+    public int getCircularRadial() {
+        return circularRadial;
+    }
+
+    public int getCircularPadding() {
+        return circularPadding;
+    }
+}
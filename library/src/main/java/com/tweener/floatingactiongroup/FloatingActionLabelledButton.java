@@ -3,8 +3,12 @@ package com.tweener.floatingactiongroup;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.TypedArray;
+import android.os.Looper;
+import android.os.MessageQueue;
 import android.support.annotation.NonNull;
 import android.support.design.widget.FloatingActionButton;
+import android.support.v7.widget.CardView;
+import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.view.Gravity;
 import android.view.MotionEvent;
@@ -17,12 +21,12 @@ import com.tweener.floatingactiongroup.util.DrawableUtils;
 /**
  * @author Vivien Mahe
  */
-public class FloatingActionLabelledButton extends LinearLayout implements View.OnClickListener {
+public class FloatingActionLabelledButton extends LinearLayout implements FloatingActionBindableChild, View.OnClickListener {
 
     private static final String TAG = FloatingActionLabelledButton.class.getSimpleName();
 
-    private static int PADDING_VERT;
-    private static int PADDING_HORZ;
+    private final int paddingVert;
+    private final int paddingHorz;
 
     private String label;
     private int srcResId;
@@ -32,12 +36,29 @@ public class FloatingActionLabelledButton extends LinearLayout implements View.O
     private String fontFileName;
     private FloatingActionGroup.OnFloatingActionGroupListener fabClickListener;
     private boolean isExpanded;
+    private boolean isContentInflated;
+    private boolean isFlat;
+
+    private CardView labelCardView;
+    private CustomTextView labelTextView;
+    private FloatingActionButton fab;
+
+    // Inflates the content of a deferred button as soon as the main thread is idle
+    private final MessageQueue.IdleHandler inflateWhenIdle = () -> {
+        inflateContent();
+        return false;
+    };
+
+    public FloatingActionLabelledButton(final Context context) {
+        this(context, null);
+    }
 
     public FloatingActionLabelledButton(final Context context, final AttributeSet attrs) {
         super(context, attrs);
 
-        PADDING_VERT = (int) context.getResources().getDimension(R.dimen.favg_padding_vert);
-        PADDING_HORZ = (int) context.getResources().getDimension(R.dimen.falb_padding_horz);
+        final FloatingActionGroupSpec spec = FloatingActionGroupSpec.obtain(context);
+        paddingVert = spec.getPaddingVert();
+        paddingHorz = spec.getPaddingHorz();
 
         setOrientation(HORIZONTAL);
         setGravity(Gravity.CENTER_VERTICAL);
@@ -49,27 +70,146 @@ public class FloatingActionLabelledButton extends LinearLayout implements View.O
         backgroundNormal = ta.getColorStateList(R.styleable.FloatingActionLabelledButton_backgroundNormal);
         backgroundPressed = ta.getColor(R.styleable.FloatingActionLabelledButton_backgroundPressed, 0);
         fontFileName = ta.getString(R.styleable.FloatingActionLabelledButton_fontFileName);
+        final boolean deferInflation = ta.getBoolean(R.styleable.FloatingActionLabelledButton_deferInflation, false);
         ta.recycle();
 
-        init(context);
+        if (!deferInflation) {
+            inflateContent();
+        }
+    }
+
+    /**
+     * Builds the label and the FAB of this button, if not done yet. Buttons declared with 'deferInflation' only hold their attributes until this
+     * method is called, either when their group expands or when the main thread becomes idle.
+     */
+    @Override
+    public void inflateContent() {
+        if (isContentInflated) {
+            return;
+        }
+
+        isContentInflated = true;
+        Looper.myQueue().removeIdleHandler(inflateWhenIdle);
+        init(getContext());
+    }
+
+    public boolean isContentInflated() {
+        return isContentInflated;
+    }
+
+    @Override
+    protected void onAttachedToWindow() {
+        super.onAttachedToWindow();
+
+        if (!isContentInflated) {
+            Looper.myQueue().addIdleHandler(inflateWhenIdle);
+        }
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        Looper.myQueue().removeIdleHandler(inflateWhenIdle);
+        super.onDetachedFromWindow();
     }
 
     private void init(final Context context) {
         View.inflate(context, R.layout.floating_action_labelled_button, this);
 
-        final CustomTextView labelTextView = findViewById(R.id.falb_label);
-        labelTextView.setText(label);
+        labelCardView = findViewById(R.id.falb_cardview);
+        labelTextView = findViewById(R.id.falb_label);
+
+        // The font is part of the parameters the label is precomputed with
         labelTextView.setFont(context, fontFileName);
+        labelTextView.setPrecomputableText(label);
 
-        final FloatingActionButton fab = findViewById(R.id.falb_fab);
-        fab.setImageResource(srcResId);
+        fab = findViewById(R.id.falb_fab);
         fab.setBackgroundTintList(backgroundNormal);
         fab.setRippleColor(backgroundPressed);
         fab.setOnClickListener(this);
         labelTextView.setOnClickListener(this);
         setOnClickListener(this);
 
-        DrawableUtils.applyColor(getContext(), fab.getDrawable(), srcColorTint);
+        updateFabImage();
+        updateContentEnabled();
+
+        if (isFlat) {
+            updateElevations();
+        }
+    }
+
+    /**
+     * Updates this button with the given action. Only the properties that actually changed are applied to the views.
+     */
+    @Override
+    public void bind(final FloatingAction action) {
+        setId(action.getId());
+        setLabel(action.getLabel());
+        setIcon(action.getIconResId(), action.getIconTint());
+        setEnabled(action.isEnabled());
+    }
+
+    public void setLabel(final String label) {
+        if (TextUtils.equals(this.label, label)) {
+            return;
+        }
+
+        this.label = label;
+
+        if (labelTextView != null) {
+            labelTextView.setPrecomputableText(label);
+        }
+    }
+
+    public void setIcon(final int srcResId, final int srcColorTint) {
+        if (this.srcResId == srcResId && this.srcColorTint == srcColorTint) {
+            return;
+        }
+
+        this.srcResId = srcResId;
+        this.srcColorTint = srcColorTint;
+
+        if (fab != null) {
+            updateFabImage();
+        }
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        super.setEnabled(enabled);
+        updateContentEnabled();
+    }
+
+    /**
+     * Removes the shadows of the label card and of the FAB of this button. Below Lollipop, they are drawn by compat drawables which are expensive
+     * to build and to draw. The space taken by the card does not change, so toggling it does not move the label.
+     */
+    public void setFlat(final boolean flat) {
+        if (isFlat == flat) {
+            return;
+        }
+
+        isFlat = flat;
+
+        if (fab != null) {
+            updateElevations();
+        }
+    }
+
+    private void updateElevations() {
+        labelCardView.setCardElevation(isFlat ? 0 : getResources().getDimension(R.dimen.favg_card_elevation));
+        fab.setCompatElevation(isFlat ? 0 : getResources().getDimension(R.dimen.fag_elevation));
+    }
+
+    private void updateFabImage() {
+        // Buttons with the same icon and tint share the same prepared drawable
+        fab.setImageDrawable(DrawableUtils.getTintedDrawable(getContext(), srcResId, srcColorTint));
+    }
+
+    private void updateContentEnabled() {
+        if (fab != null) {
+            fab.setEnabled(isEnabled());
+            labelTextView.setEnabled(isEnabled());
+        }
     }
 
     @Override
@@ -77,7 +217,7 @@ public class FloatingActionLabelledButton extends LinearLayout implements View.O
         super.onMeasure(widthMeasureSpec, heightMeasureSpec);
 
         // Add padding to this button
-        setMeasuredDimension(getMeasuredWidth() + 2 * PADDING_HORZ, getMeasuredHeight() + 2 * PADDING_VERT);
+        setMeasuredDimension(getMeasuredWidth() + 2 * paddingHorz, getMeasuredHeight() + 2 * paddingVert);
     }
 
     @Override
@@ -90,6 +230,7 @@ public class FloatingActionLabelledButton extends LinearLayout implements View.O
 
     @Override
     public boolean onInterceptTouchEvent(final MotionEvent ev) {
+        // Collapsed buttons are invisible and do not receive touches anymore, this only guards the collapse animation
         return !isExpanded;
     }
 
@@ -98,10 +239,12 @@ public class FloatingActionLabelledButton extends LinearLayout implements View.O
         return false;
     }
 
+    @Override
     public void setFabClickListener(final FloatingActionGroup.OnFloatingActionGroupListener fabClickListener) {
         this.fabClickListener = fabClickListener;
     }
 
+    @Override
     public void setExpanded(final boolean expanded) {
         isExpanded = expanded;
     }
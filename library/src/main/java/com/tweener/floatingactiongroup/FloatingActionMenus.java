@@ -0,0 +1,135 @@
+package com.tweener.floatingactiongroup;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.content.res.TypedArray;
+import android.content.res.XmlResourceParser;
+import android.util.AttributeSet;
+import android.util.LruCache;
+import android.util.Xml;
+import android.view.InflateException;
+import android.view.View;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parses menu resources into immutable lists of {@link FloatingAction}, cached per resource id and {@link Configuration}.<br>
+ * Groups sharing the same menu reuse the same parse, and build their buttons directly from it without inflating a view per action. Each
+ * {@code <item>} supports the {@code android:id}, {@code android:title}, {@code android:icon}, {@code android:enabled}, {@code android:visible} and
+ * {@code app:iconTint} attributes.
+ *
+ * @author Vivien Mahe
+ */
+public final class FloatingActionMenus {
+
+    private static final String TAG = FloatingActionMenus.class.getSimpleName();
+
+    private static final String XML_ITEM = "item";
+    private static final int MAX_CACHED_MENUS = 16;
+
+    private static final LruCache<MenuKey, List<FloatingAction>> MENUS = new LruCache<>(MAX_CACHED_MENUS);
+
+    private FloatingActionMenus() {
+    }
+
+    /**
+     * Returns the actions of the given menu resource, parsing it on first use for the current configuration of the given {@link Context}.
+     *
+     * @param context
+     * @param menuResId menu resource id
+     * @return an immutable list of actions, in the order of the menu
+     */
+    public static List<FloatingAction> obtain(final Context context, final int menuResId) {
+        final Configuration configuration = context.getResources().getConfiguration();
+
+        List<FloatingAction> actions = MENUS.get(new MenuKey(menuResId, configuration));
+        if (actions == null) {
+            actions = parse(context, menuResId);
+
+            // The framework may update its configuration in place, so the key must be a copy
+            MENUS.put(new MenuKey(menuResId, new Configuration(configuration)), actions);
+        }
+
+        return actions;
+    }
+
+    private static List<FloatingAction> parse(final Context context, final int menuResId) {
+        final XmlResourceParser parser = context.getResources().getXml(menuResId);
+
+        try {
+            return parse(context, parser);
+        } finally {
+            parser.close();
+        }
+    }
+
+    /**
+     * Parses the {@code <item>} elements of a menu document. Package-private for the tests, which build their menus in memory.
+     */
+    static List<FloatingAction> parse(final Context context, final XmlPullParser parser) {
+        final List<FloatingAction> actions = new ArrayList<>();
+
+        try {
+            final AttributeSet attrs = Xml.asAttributeSet(parser);
+
+            int eventType = parser.getEventType();
+            while (eventType != XmlPullParser.END_DOCUMENT) {
+                if (eventType == XmlPullParser.START_TAG && XML_ITEM.equals(parser.getName())) {
+                    final TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.FloatingActionMenuItem);
+                    final int id = ta.getResourceId(R.styleable.FloatingActionMenuItem_android_id, View.NO_ID);
+                    final String title = ta.getString(R.styleable.FloatingActionMenuItem_android_title);
+                    final int iconResId = ta.getResourceId(R.styleable.FloatingActionMenuItem_android_icon, 0);
+                    final int iconTint = ta.getColor(R.styleable.FloatingActionMenuItem_iconTint, 0);
+                    final boolean enabled = ta.getBoolean(R.styleable.FloatingActionMenuItem_android_enabled, true);
+                    final boolean visible = ta.getBoolean(R.styleable.FloatingActionMenuItem_android_visible, true);
+                    ta.recycle();
+
+                    if (visible) {
+                        actions.add(new FloatingAction(id, title, iconResId, iconTint, enabled));
+                    }
+                }
+
+                eventType = parser.next();
+            }
+        } catch (final XmlPullParserException | IOException ex) {
+            throw new InflateException("Error parsing menu XML", ex);
+        }
+
+        return Collections.unmodifiableList(actions);
+    }
+
+    private static final class MenuKey {
+        private final int menuResId;
+        private final Configuration configuration;
+
+        private MenuKey(final int menuResId, final Configuration configuration) {
+            this.menuResId = menuResId;
+            this.configuration = configuration;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof MenuKey)) {
+                return false;
+            }
+
+            final MenuKey key = (MenuKey) o;
+            return menuResId == key.menuResId && configuration.equals(key.configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * menuResId + configuration.hashCode();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.tweener.floatingactiongroup.animation;
+
+import android.view.Choreographer;
+
+/**
+ * Source of the frames a {@link GroupAnimator} runs on. The default clock is the {@link Choreographer} of the main thread; tests and profiling
+ * can use a {@link ManualAnimationClock} to step the animations frame by frame.
+ *
+ * @author Vivien Mahe
+ */
+public interface AnimationClock {
+
+    /**
+     * Posts a callback to run on the next frame, with the timestamp of that frame in nanoseconds.
+     */
+    void postFrameCallback(Choreographer.FrameCallback callback);
+
+    void removeFrameCallback(Choreographer.FrameCallback callback);
+}
@@ -0,0 +1,132 @@
+package com.tweener.floatingactiongroup.animation;
+
+/**
+ * Timings of one expand or collapse animation of a group, reported to its metrics listener when the animation ends.<br>
+ * The same instance is reused for every animation of a group: copy the values you need, do not keep a reference to it.
+ *
+ * @author Vivien Mahe
+ */
+public final class AnimationMetrics {
+
+    // A frame coming later than this factor of the frame interval missed at least one vsync
+    private static final float JANK_THRESHOLD = 1.5f;
+
+    private boolean expanding;
+    private long startTimeNanos;
+    private long endTimeNanos;
+    private long lastFrameTimeNanos;
+    private long frameIntervalNanos;
+    private int frameCount;
+    private int jankyFrameCount;
+    private long measureTimeNanos;
+    private long layoutTimeNanos;
+
+    /**
+     * Returns {@code true} if the animation expanded the group, {@code false} if it collapsed it. An animation reversed while running reports its
+     * final direction.
+     */
+    public boolean isExpanding() {
+        return expanding;
+    }
+
+    /**
+     * Timestamp of the first frame of the animation, in the {@link android.view.Choreographer} time base.
+     */
+    public long getStartTimeNanos() {
+        return startTimeNanos;
+    }
+
+    /**
+     * Timestamp of the last frame of the animation, in the {@link android.view.Choreographer} time base.
+     */
+    public long getEndTimeNanos() {
+        return endTimeNanos;
+    }
+
+    public long getDurationNanos() {
+        return endTimeNanos - startTimeNanos;
+    }
+
+    /**
+     * Expected interval between two frames on the display the group was attached to.
+     */
+    public long getFrameIntervalNanos() {
+        return frameIntervalNanos;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Number of frames that came later than the frame budget, i.e. at least one vsync has been missed before them.
+     */
+    public int getJankyFrameCount() {
+        return jankyFrameCount;
+    }
+
+    /**
+     * Time spent measuring the group since the animation started.
+     */
+    public long getMeasureTimeNanos() {
+        return measureTimeNanos;
+    }
+
+    /**
+     * Time spent laying out the group since the animation started.
+     */
+    public long getLayoutTimeNanos() {
+        return layoutTimeNanos;
+    }
+
+    /**
+     * Resets these metrics for a new animation. Called by the library.
+     */
+    public void start(final boolean expanding, final long frameIntervalNanos) {
+        this.expanding = expanding;
+        this.frameIntervalNanos = frameIntervalNanos;
+        startTimeNanos = 0;
+        endTimeNanos = 0;
+        lastFrameTimeNanos = 0;
+        frameCount = 0;
+        jankyFrameCount = 0;
+        measureTimeNanos = 0;
+        layoutTimeNanos = 0;
+    }
+
+    /**
+     * Updates the direction of a running animation. Called by the library.
+     */
+    public void setExpanding(final boolean expanding) {
+        this.expanding = expanding;
+    }
+
+    /**
+     * Records a rendered frame. Called by the library.
+     */
+    public void addFrame(final long frameTimeNanos) {
+        if (frameCount == 0) {
+            startTimeNanos = frameTimeNanos;
+        } else if (frameTimeNanos - lastFrameTimeNanos > frameIntervalNanos * JANK_THRESHOLD) {
+            jankyFrameCount++;
+        }
+
+        frameCount++;
+        lastFrameTimeNanos = frameTimeNanos;
+        endTimeNanos = frameTimeNanos;
+    }
+
+    /**
+     * Records time spent measuring the group. Called by the library.
+     */
+    public void addMeasureTime(final long nanos) {
+        measureTimeNanos += nanos;
+    }
+
+    /**
+     * Records time spent laying out the group. Called by the library.
+     */
+    public void addLayoutTime(final long nanos) {
+        layoutTimeNanos += nanos;
+    }
+}
@@ -0,0 +1,23 @@
+package com.tweener.floatingactiongroup.animation;
+
+import android.view.Choreographer;
+
+/**
+ * Default {@link AnimationClock}, running on the {@link Choreographer} of the thread it has been created on.
+ *
+ * @author Vivien Mahe
+ */
+public final class ChoreographerClock implements AnimationClock {
+
+    private final Choreographer choreographer = Choreographer.getInstance();
+
+    @Override
+    public void postFrameCallback(final Choreographer.FrameCallback callback) {
+        choreographer.postFrameCallback(callback);
+    }
+
+    @Override
+    public void removeFrameCallback(final Choreographer.FrameCallback callback) {
+        choreographer.removeFrameCallback(callback);
+    }
+}
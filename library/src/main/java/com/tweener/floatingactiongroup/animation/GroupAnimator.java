@@ -0,0 +1,364 @@
+package com.tweener.floatingactiongroup.animation;
+
+import android.view.Choreographer;
+import android.view.View;
+import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.animation.Interpolator;
+
+import com.tweener.floatingactiongroup.R;
+
+import java.util.Arrays;
+
+/**
+ * Drives the expand/collapse animation of all the children of a group from a single frame callback, posted to an {@link AnimationClock}.<br>
+ * The whole animation is described by one progress value, from 0 (collapsed) to 1 (expanded). Each registered child is translated from its
+ * collapsed offset to its laid out position, and faded in, according to this progress and its own stagger delay.<br>
+ * A fully collapsed child is made {@link View#INVISIBLE}, which takes it out of the draw and touch dispatch of its parent without requesting a
+ * layout: it only becomes visible again when its expand animation starts. Only the children this animator hid are shown again: a child the app
+ * made invisible or gone itself keeps its visibility. A child hidden by this animator must be made {@link View#GONE} to stay hidden.<br>
+ * Buffers only grow, so once the children have been registered, toggling the group does not allocate anything.
+ *
+ * @author Vivien Mahe
+ */
+public final class GroupAnimator implements Choreographer.FrameCallback {
+
+    public interface OnGroupAnimationListener {
+        /**
+         * Fired every time the progress has been applied to the children, including when jumping to a progress without animation.
+         */
+        void onGroupAnimationUpdate(float progress);
+
+        /**
+         * Fired when the progress reached its target, either at the end of an animation or after a jump.
+         */
+        void onGroupAnimationEnd(float progress);
+    }
+
+    /**
+     * Children properties are set from the frame callback of this animator.
+     */
+    public static final int MODE_FRAME = 0;
+
+    /**
+     * Children are promoted to a hardware layer for the duration of their animation, and their properties are driven by their
+     * {@link android.view.ViewPropertyAnimator}, so a frame does not redraw their whole hierarchy.
+     */
+    public static final int MODE_HARDWARE_LAYER = 1;
+
+    private static final int INITIAL_CAPACITY = 8;
+    private static final long NANOS_PER_MILLI = 1000000L;
+
+    private Interpolator interpolator = new AccelerateDecelerateInterpolator();
+
+    private AnimationClock clock;
+
+    private View[] children = new View[INITIAL_CAPACITY];
+    private float[] collapsedOffsetsX = new float[INITIAL_CAPACITY];
+    private float[] collapsedOffsetsY = new float[INITIAL_CAPACITY];
+    private int childCount;
+
+    private long duration;
+    private long stagger;
+    private int mode = MODE_FRAME;
+
+    private float progress;
+    private float fromProgress;
+    private float toProgress;
+    private long startTimeNanos;
+    private long lastFrameTimeNanos;
+    private long runDurationNanos;
+    private boolean running;
+
+    private OnGroupAnimationListener listener;
+    private AnimationMetrics metrics;
+
+    public GroupAnimator(final long duration, final float initialProgress) {
+        this.duration = duration;
+        this.progress = initialProgress;
+        this.toProgress = initialProgress;
+    }
+
+    public void setDuration(final long duration) {
+        this.duration = duration;
+    }
+
+    /**
+     * Sets the interpolator applied to the progress of each child, and of the whole animation for {@link #getInterpolatedProgress()}.
+     */
+    public void setInterpolator(final Interpolator interpolator) {
+        this.interpolator = interpolator;
+    }
+
+    /**
+     * Sets the clock the frame callbacks are posted to. Any running animation jumps to its target first, so its end is still notified.
+     */
+    public void setClock(final AnimationClock clock) {
+        if (running) {
+            jumpTo(toProgress);
+        }
+
+        this.clock = clock;
+    }
+
+    /**
+     * Sets the delay, in milliseconds, between the start of two consecutive children. The first registered child starts first when expanding, and
+     * last when collapsing.
+     */
+    public void setStagger(final long stagger) {
+        this.stagger = stagger;
+    }
+
+    public void setOnGroupAnimationListener(final OnGroupAnimationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sets how children are animated, either {@link #MODE_FRAME} or {@link #MODE_HARDWARE_LAYER}. Takes effect on the next animation.
+     */
+    public void setMode(final int mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Sets the metrics every rendered frame is recorded in, or {@code null} to stop recording.
+     */
+    public void setMetrics(final AnimationMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public float getProgress() {
+        return progress;
+    }
+
+    /**
+     * Returns the current progress of the whole animation through its interpolator, for views animated as a single block (e.g. the main FAB).
+     */
+    public float getInterpolatedProgress() {
+        return interpolator.getInterpolation(progress);
+    }
+
+    public float getTargetProgress() {
+        return toProgress;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Removes every registered child. Must be followed by calls to {@link #addChild(View, float, float)}.
+     */
+    public void clearChildren() {
+        Arrays.fill(children, 0, childCount, null);
+        childCount = 0;
+    }
+
+    /**
+     * Registers a child to animate.
+     *
+     * @param child            the child view
+     * @param collapsedOffsetX horizontal translation of the child when the group is collapsed
+     * @param collapsedOffsetY vertical translation of the child when the group is collapsed
+     */
+    public void addChild(final View child, final float collapsedOffsetX, final float collapsedOffsetY) {
+        if (childCount == children.length) {
+            final int capacity = childCount * 2;
+            children = Arrays.copyOf(children, capacity);
+            collapsedOffsetsX = Arrays.copyOf(collapsedOffsetsX, capacity);
+            collapsedOffsetsY = Arrays.copyOf(collapsedOffsetsY, capacity);
+        }
+
+        children[childCount] = child;
+        collapsedOffsetsX[childCount] = collapsedOffsetX;
+        collapsedOffsetsY[childCount] = collapsedOffsetY;
+        childCount++;
+    }
+
+    /**
+     * Animates every registered child from the current progress to the given one. If an animation is already running, it is retargeted from its
+     * current progress: no frame is skipped and no extra callback is posted. Several calls within the same frame are coalesced into the last one.
+     *
+     * @param target 1 to expand, 0 to collapse
+     */
+    public void animateTo(final float target) {
+        fromProgress = progress;
+        toProgress = target;
+        runDurationNanos = (long) (Math.abs(target - progress) * getTotalDuration() * NANOS_PER_MILLI);
+
+        if (runDurationNanos <= 0) {
+            jumpTo(target);
+            return;
+        }
+
+        // A new animation takes its start time from its first frame, so it does not skip its beginning. A retargeted one starts from the last
+        // frame rendered, so the next frame already moves it towards its new target
+        startTimeNanos = running && startTimeNanos >= 0 ? lastFrameTimeNanos : -1;
+
+        if (mode == MODE_HARDWARE_LAYER) {
+            animateChildrenProperties(target);
+        }
+
+        if (!running) {
+            running = true;
+            getClock().postFrameCallback(this);
+        }
+    }
+
+    /**
+     * Stops any running animation and moves every registered child to the given progress.
+     */
+    public void jumpTo(final float target) {
+        cancel();
+        progress = target;
+        toProgress = target;
+        applyProgress();
+
+        if (listener != null) {
+            listener.onGroupAnimationEnd(progress);
+        }
+    }
+
+    public void cancel() {
+        if (running) {
+            getClock().removeFrameCallback(this);
+            running = false;
+
+            if (mode == MODE_HARDWARE_LAYER) {
+                for (int i = 0; i < childCount; i++) {
+                    children[i].animate().cancel();
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the current progress to every registered child. In {@link #MODE_HARDWARE_LAYER}, children are left to their
+     * {@link android.view.ViewPropertyAnimator} while an animation is running.
+     */
+    public void applyProgress() {
+        if (mode == MODE_FRAME || !running) {
+            final long totalDuration = getTotalDuration();
+
+            for (int i = 0; i < childCount; i++) {
+                final float childProgress = interpolator.getInterpolation(getChildFraction(i, progress, totalDuration));
+                final View child = children[i];
+                child.setAlpha(childProgress);
+                child.setTranslationX(collapsedOffsetsX[i] * (1 - childProgress));
+                child.setTranslationY(collapsedOffsetsY[i] * (1 - childProgress));
+                setChildVisible(child, childProgress > 0);
+            }
+        }
+
+        if (listener != null) {
+            listener.onGroupAnimationUpdate(progress);
+        }
+    }
+
+    @Override
+    public void doFrame(final long frameTimeNanos) {
+        if (startTimeNanos < 0) {
+            startTimeNanos = frameTimeNanos;
+        }
+        lastFrameTimeNanos = frameTimeNanos;
+
+        if (metrics != null) {
+            metrics.addFrame(frameTimeNanos);
+        }
+
+        final float fraction = Math.min(1f, (frameTimeNanos - startTimeNanos) / (float) runDurationNanos);
+        progress = fromProgress + (toProgress - fromProgress) * fraction;
+        applyProgress();
+
+        if (fraction < 1f) {
+            getClock().postFrameCallback(this);
+        } else {
+            running = false;
+
+            // Collapsed children have been left to their ViewPropertyAnimator
+            if (mode == MODE_HARDWARE_LAYER && toProgress <= 0) {
+                for (int i = 0; i < childCount; i++) {
+                    setChildVisible(children[i], false);
+                }
+            }
+
+            if (listener != null) {
+                listener.onGroupAnimationEnd(progress);
+            }
+        }
+    }
+
+    /**
+     * Starts the {@link android.view.ViewPropertyAnimator} of every child, from its current state to the given progress, honoring the stagger.
+     */
+    private void animateChildrenProperties(final float target) {
+        final long totalDuration = getTotalDuration();
+        final float position = progress * totalDuration;
+        final boolean expanding = target > progress;
+
+        for (int i = 0; i < childCount; i++) {
+            final long childStart = i * stagger;
+            final long startDelay = expanding ? childStart - (long) position : (long) position - (childStart + duration);
+            final float childFraction = getChildFraction(i, progress, totalDuration);
+            final float childTargetFraction = getChildFraction(i, target, totalDuration);
+            final float childTarget = interpolator.getInterpolation(childTargetFraction);
+
+            if (expanding) {
+                setChildVisible(children[i], true);
+            }
+
+            children[i].animate()
+                    .alpha(childTarget)
+                    .translationX(collapsedOffsetsX[i] * (1 - childTarget))
+                    .translationY(collapsedOffsetsY[i] * (1 - childTarget))
+                    .setDuration((long) (Math.abs(childTargetFraction - childFraction) * duration))
+                    .setStartDelay(Math.max(0, startDelay))
+                    .setInterpolator(interpolator)
+                    .withLayer();
+        }
+    }
+
+    /**
+     * Hides a visible child, or shows a child previously hidden by this animator. The visibility set by the app on any other child is left as is.
+     * Only updates the visibility of a child when it changed, so applying the same progress again does not invalidate anything.
+     */
+    private static void setChildVisible(final View child, final boolean visible) {
+        final boolean hiddenByAnimator = child.getTag(R.id.fag_hidden_by_animator) != null;
+
+        if (visible) {
+            if (hiddenByAnimator) {
+                child.setTag(R.id.fag_hidden_by_animator, null);
+
+                if (child.getVisibility() == View.INVISIBLE) {
+                    child.setVisibility(View.VISIBLE);
+                }
+            }
+        } else if (child.getVisibility() == View.VISIBLE) {
+            child.setTag(R.id.fag_hidden_by_animator, Boolean.TRUE);
+            child.setVisibility(View.INVISIBLE);
+        }
+    }
+
+    /**
+     * Returns the linear progress of a child, from 0 to 1, when the whole animation is at the given progress.
+     */
+    private float getChildFraction(final int index, final float groupProgress, final long totalDuration) {
+        if (duration <= 0) {
+            return groupProgress;
+        }
+
+        final float elapsed = groupProgress * totalDuration - index * stagger;
+        return Math.max(0f, Math.min(1f, elapsed / duration));
+    }
+
+    private long getTotalDuration() {
+        return duration + stagger * Math.max(0, childCount - 1);
+    }
+
+    private AnimationClock getClock() {
+        if (clock == null) {
+            clock = new ChoreographerClock();
+        }
+
+        return clock;
+    }
+}
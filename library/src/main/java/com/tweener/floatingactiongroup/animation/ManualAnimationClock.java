@@ -0,0 +1,122 @@
+package com.tweener.floatingactiongroup.animation;
+
+import android.view.Choreographer;
+
+import java.util.ArrayList;
+
+/**
+ * {@link AnimationClock} advanced by hand, for tests and profiling. Each call to {@link #stepFrame()} moves the time forward by one frame interval
+ * and runs the callbacks posted before it, so animations are deterministic and the work of each frame can be measured exactly.<br>
+ * A recorded sequence of actions (e.g. toggles) can be replayed at the exact same frames with {@link #schedule(long, Runnable)}.<br>
+ * Only the {@link GroupAnimator#MODE_FRAME} animations run on this clock.
+ *
+ * @author Vivien Mahe
+ */
+public final class ManualAnimationClock implements AnimationClock {
+
+    public static final long DEFAULT_FRAME_INTERVAL_NANOS = 16666667L;
+
+    private final long frameIntervalNanos;
+    private final ArrayList<Choreographer.FrameCallback> callbacks = new ArrayList<>();
+    private final ArrayList<Choreographer.FrameCallback> frameCallbacks = new ArrayList<>();
+    private final ArrayList<ScheduledAction> scheduledActions = new ArrayList<>();
+    private long frameTimeNanos;
+
+    public ManualAnimationClock() {
+        this(DEFAULT_FRAME_INTERVAL_NANOS);
+    }
+
+    public ManualAnimationClock(final long frameIntervalNanos) {
+        this.frameIntervalNanos = frameIntervalNanos;
+    }
+
+    @Override
+    public void postFrameCallback(final Choreographer.FrameCallback callback) {
+        callbacks.add(callback);
+    }
+
+    @Override
+    public void removeFrameCallback(final Choreographer.FrameCallback callback) {
+        callbacks.remove(callback);
+    }
+
+    /**
+     * Timestamp of the last frame, in nanoseconds.
+     */
+    public long getFrameTimeNanos() {
+        return frameTimeNanos;
+    }
+
+    /**
+     * Returns {@code true} if a callback or a scheduled action is waiting for a frame.
+     */
+    public boolean hasPendingFrame() {
+        return !callbacks.isEmpty() || !scheduledActions.isEmpty();
+    }
+
+    /**
+     * Runs the given action on the first frame at least {@code delayNanos} after the current one, before the frame callbacks.
+     */
+    public void schedule(final long delayNanos, final Runnable action) {
+        final ScheduledAction scheduledAction = new ScheduledAction(frameTimeNanos + delayNanos, action);
+
+        // Kept sorted by time, actions scheduled at the same time run in order
+        int index = scheduledActions.size();
+        while (index > 0 && scheduledActions.get(index - 1).timeNanos > scheduledAction.timeNanos) {
+            index--;
+        }
+        scheduledActions.add(index, scheduledAction);
+    }
+
+    /**
+     * Moves the time forward by one frame, then runs the due scheduled actions and the callbacks posted before this frame.
+     */
+    public void stepFrame() {
+        frameTimeNanos += frameIntervalNanos;
+
+        while (!scheduledActions.isEmpty() && scheduledActions.get(0).timeNanos <= frameTimeNanos) {
+            scheduledActions.remove(0).action.run();
+        }
+
+        // Callbacks posted while running this frame are for the next one
+        frameCallbacks.addAll(callbacks);
+        callbacks.clear();
+
+        final int callbackCount = frameCallbacks.size();
+        for (int i = 0; i < callbackCount; i++) {
+            frameCallbacks.get(i).doFrame(frameTimeNanos);
+        }
+        frameCallbacks.clear();
+    }
+
+    public void stepFrames(final int frameCount) {
+        for (int i = 0; i < frameCount; i++) {
+            stepFrame();
+        }
+    }
+
+    /**
+     * Steps frames until nothing is waiting for a frame anymore, or the maximum number of frames is reached.
+     *
+     * @return the number of frames stepped
+     */
+    public int runUntilIdle(final int maxFrames) {
+        int frameCount = 0;
+        while (hasPendingFrame() && frameCount < maxFrames) {
+            stepFrame();
+            frameCount++;
+        }
+
+        return frameCount;
+    }
+
+    private static final class ScheduledAction {
+        private final long timeNanos;
+        private final Runnable action;
+
+        private ScheduledAction(final long timeNanos, final Runnable action) {
+            this.timeNanos = timeNanos;
+            this.action = action;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.tweener.floatingactiongroup.group;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.util.AttributeSet;
+import android.view.View;
+
+import com.tweener.floatingactiongroup.FloatingActionGroup;
+import com.tweener.floatingactiongroup.FloatingActionGroupSpec;
+import com.tweener.floatingactiongroup.R;
+import com.tweener.floatingactiongroup.animation.GroupAnimator;
+
+import java.util.Arrays;
+
+/**
+ * Custom implementation of {@link FloatingActionGroup} to display FABs on an arc around the main FAB.<br>
+ * The offset of each child from the main FAB is computed once per measure pass into primitive arrays: laying out and animating the children
+ * only reads them, without any trigonometry.
+ *
+ * @author Vivien Mahe
+ */
+public class FloatingActionCircularGroup extends FloatingActionGroup {
+
+    private static final String TAG = FloatingActionCircularGroup.class.getSimpleName();
+
+    public static final int POSITION_TOP_LEFT = 1;
+    public static final int POSITION_TOP_CENTER = 2;
+    public static final int POSITION_TOP_RIGHT = 3;
+    public static final int POSITION_CENTER_LEFT = 4;
+    public static final int POSITION_CENTER = 5;
+    public static final int POSITION_CENTER_RIGHT = 6;
+    public static final int POSITION_BOTTOM_LEFT = 7;
+    public static final int POSITION_BOTTOM_CENTER = 8;
+    public static final int POSITION_BOTTOM_RIGHT = 9;
+
+    private static final int MAX_ANGLE_DEFAULT = 360;
+    private static final int FULL_CIRCLE = 360;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private final int radial;
+    private final int maxAngle;
+    private final int position;
+    private final int startAngle;
+    private final int endAngle;
+    private final int padding;
+
+    // Offsets of the center of each visible child from the center of the main FAB, computed once per measure pass
+    private float[] childOffsetsX = new float[INITIAL_CAPACITY];
+    private float[] childOffsetsY = new float[INITIAL_CAPACITY];
+
+    // Center of the main FAB within the bounds of the children, computed once per measure pass
+    private float contentMainCenterX;
+    private float contentMainCenterY;
+    private int contentWidth;
+    private int contentHeight;
+
+    public FloatingActionCircularGroup(final Context context, final AttributeSet attrs) {
+        super(context, attrs);
+
+        final FloatingActionGroupSpec spec = getSpec();
+
+        final TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.FloatingActionCircularGroup);
+        radial = ta.getDimensionPixelSize(R.styleable.FloatingActionCircularGroup_radial, spec.getCircularRadial());
+        maxAngle = ta.getInteger(R.styleable.FloatingActionCircularGroup_maxAngle, MAX_ANGLE_DEFAULT);
+        position = ta.getInt(R.styleable.FloatingActionCircularGroup_positionCircularFab, POSITION_BOTTOM_RIGHT);
+        startAngle = ta.getInteger(R.styleable.FloatingActionCircularGroup_startAngle, getDefaultStartAngle(position));
+        endAngle = ta.getInteger(R.styleable.FloatingActionCircularGroup_endAngle, getDefaultEndAngle(position));
+        ta.recycle();
+
+        padding = spec.getCircularPadding();
+
+        configure(context);
+    }
+
+    @Override
+    protected boolean onAnimateMainFab(final boolean isExpanded) {
+        // The main FAB follows the progress of the children, see onAnimationProgress()
+        return true;
+    }
+
+    @Override
+    protected void onAnimationProgress(final float progress) {
+        applyMainFabProgress();
+    }
+
+    @Override
+    protected void onMeasureGroup(final int widthMeasureSpec, final int heightMeasureSpec) {
+        measureChildren(widthMeasureSpec, heightMeasureSpec);
+
+        final View mainFab = getMainFAB();
+        final int visibleChildCount = computeChildOffsets();
+
+        // Bounds of the main FAB and of every child, relative to the center of the main FAB
+        float minX = -mainFab.getMeasuredWidth() / 2f;
+        float maxX = -minX;
+        float minY = -mainFab.getMeasuredHeight() / 2f;
+        float maxY = -minY;
+
+        int index = 0;
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount && index < visibleChildCount; i++) {
+            final View child = getChildAt(i);
+
+            if (child.getVisibility() == GONE || child == mainFab) {
+                continue;
+            }
+
+            final float halfWidth = child.getMeasuredWidth() / 2f;
+            final float halfHeight = child.getMeasuredHeight() / 2f;
+            minX = Math.min(minX, childOffsetsX[index] - halfWidth);
+            maxX = Math.max(maxX, childOffsetsX[index] + halfWidth);
+            minY = Math.min(minY, childOffsetsY[index] - halfHeight);
+            maxY = Math.max(maxY, childOffsetsY[index] + halfHeight);
+            index++;
+        }
+
+        contentWidth = (int) Math.ceil(maxX - minX);
+        contentHeight = (int) Math.ceil(maxY - minY);
+        contentMainCenterX = -minX;
+        contentMainCenterY = -minY;
+
+        setMeasuredDimension(resolveSize(contentWidth + 2 * padding, widthMeasureSpec), resolveSize(contentHeight + 2 * padding, heightMeasureSpec));
+    }
+
+    @Override
+    protected void onLayoutGroup(final int l, final int t, final int r, final int b) {
+        final View mainFab = getMainFAB();
+
+        // When this group is larger than its content, the content is anchored according to 'positionCircularFab'
+        final float mainCenterX = padding + getAnchorOffset(r - l - 2 * padding - contentWidth, getHorizontalAnchor()) + contentMainCenterX;
+        final float mainCenterY = padding + getAnchorOffset(b - t - 2 * padding - contentHeight, getVerticalAnchor()) + contentMainCenterY;
+
+        final GroupAnimator groupAnimator = getGroupAnimator();
+        groupAnimator.clearChildren();
+
+        int index = 0;
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+
+            if (child.getVisibility() == GONE || child == mainFab) {
+                continue;
+            }
+
+            final int childLeft = Math.round(mainCenterX + childOffsetsX[index] - child.getMeasuredWidth() / 2f);
+            final int childTop = Math.round(mainCenterY + childOffsetsY[index] - child.getMeasuredHeight() / 2f);
+            child.layout(childLeft, childTop, childLeft + child.getMeasuredWidth(), childTop + child.getMeasuredHeight());
+
+            // Collapsed, each child goes back along its own vector, behind the main FAB
+            groupAnimator.addChild(child, -childOffsetsX[index], -childOffsetsY[index]);
+            index++;
+        }
+
+        // Keeps the children where the running animation (or the current state) expects them
+        groupAnimator.applyProgress();
+
+        final int mainLeft = Math.round(mainCenterX - mainFab.getMeasuredWidth() / 2f);
+        final int mainTop = Math.round(mainCenterY - mainFab.getMeasuredHeight() / 2f);
+        mainFab.layout(mainLeft, mainTop, mainLeft + mainFab.getMeasuredWidth(), mainTop + mainFab.getMeasuredHeight());
+    }
+
+    /**
+     * Each child will move along its own vector, from behind the main FAB to its position on the arc.
+     *
+     * @param animate
+     */
+    @Override
+    protected void onExpanded(final boolean animate) {
+        setChildrenExpanded(true);
+        animateGroupTo(1, animate);
+    }
+
+    /**
+     * Each child will move along its own vector, from its position on the arc to behind the main FAB.
+     *
+     * @param animate
+     */
+    @Override
+    protected void onCollapsed(final boolean animate) {
+        setChildrenExpanded(false);
+        animateGroupTo(0, animate);
+    }
+
+    /**
+     * Distributes the visible children on the arc, from 'startAngle' to 'endAngle' (limited to 'maxAngle'), and stores their offsets.
+     *
+     * @return the number of visible children
+     */
+    private int computeChildOffsets() {
+        int visibleChildCount = 0;
+        final int childCount = getChildCount();
+        for (int i = 0; i < childCount; i++) {
+            final View child = getChildAt(i);
+
+            if (child.getVisibility() != GONE && child != getMainFAB()) {
+                visibleChildCount++;
+            }
+        }
+
+        if (visibleChildCount > childOffsetsX.length) {
+            childOffsetsX = Arrays.copyOf(childOffsetsX, visibleChildCount);
+            childOffsetsY = Arrays.copyOf(childOffsetsY, visibleChildCount);
+        }
+
+        final int sweep = Math.max(-maxAngle, Math.min(maxAngle, endAngle - startAngle));
+
+        // On a full circle, the last child would overlap the first one
+        final float step;
+        if (visibleChildCount <= 1) {
+            step = 0;
+        } else if (Math.abs(sweep) >= FULL_CIRCLE) {
+            step = sweep / (float) visibleChildCount;
+        } else {
+            step = sweep / (float) (visibleChildCount - 1);
+        }
+
+        // A lone child sits in the middle of the arc
+        final float firstAngle = visibleChildCount == 1 ? startAngle + sweep / 2f : startAngle;
+
+        for (int i = 0; i < visibleChildCount; i++) {
+            final double angle = Math.toRadians(firstAngle + i * step);
+
+            // Angles go counterclockwise from the right, while the Y axis goes down
+            childOffsetsX[i] = (float) (radial * Math.cos(angle));
+            childOffsetsY[i] = (float) (-radial * Math.sin(angle));
+        }
+
+        return visibleChildCount;
+    }
+
+    private int getHorizontalAnchor() {
+        return (position - 1) % 3;
+    }
+
+    private int getVerticalAnchor() {
+        return (position - 1) / 3;
+    }
+
+    /**
+     * @param extraSpace space left once the content has been placed
+     * @param anchor     0 for start, 1 for center, 2 for end
+     */
+    private static float getAnchorOffset(final int extraSpace, final int anchor) {
+        return Math.max(0, extraSpace) * anchor / 2f;
+    }
+
+    /**
+     * Children are spread away from the edges the main FAB is anchored to.
+     */
+    private static int getDefaultStartAngle(final int position) {
+        switch (position) {
+            case POSITION_TOP_LEFT:
+                return 270;
+            case POSITION_TOP_CENTER:
+                return 180;
+            case POSITION_TOP_RIGHT:
+                return 180;
+            case POSITION_CENTER_LEFT:
+                return -90;
+            case POSITION_CENTER:
+                return 0;
+            case POSITION_CENTER_RIGHT:
+                return 90;
+            case POSITION_BOTTOM_LEFT:
+                return 0;
+            case POSITION_BOTTOM_CENTER:
+                return 0;
+            case POSITION_BOTTOM_RIGHT:
+            default:
+                return 90;
+        }
+    }
+
+    private static int getDefaultEndAngle(final int position) {
+        switch (position) {
+            case POSITION_TOP_LEFT:
+                return 360;
+            case POSITION_TOP_CENTER:
+                return 360;
+            case POSITION_TOP_RIGHT:
+                return 270;
+            case POSITION_CENTER_LEFT:
+                return 90;
+            case POSITION_CENTER:
+                return 360;
+            case POSITION_CENTER_RIGHT:
+                return 270;
+            case POSITION_BOTTOM_LEFT:
+                return 90;
+            case POSITION_BOTTOM_CENTER:
+                return 180;
+            case POSITION_BOTTOM_RIGHT:
+            default:
+                return 180;
+        }
+    }
+}
@@ -1,21 +1,33 @@
 package com.tweener.floatingactiongroup.group;
 
-import android.animation.ArgbEvaluator;
-import android.animation.ValueAnimator;
 import android.content.Context;
-import android.content.res.ColorStateList;
-import android.content.res.TypedArray;
-import android.support.design.widget.FloatingActionButton;
+import android.graphics.Canvas;
+import android.graphics.Rect;
 import android.util.AttributeSet;
+import android.view.MotionEvent;
 import android.view.View;
-import android.view.animation.AccelerateDecelerateInterpolator;
+import android.view.ViewConfiguration;
+import android.view.ViewParent;
 
+import com.tweener.floatingactiongroup.FloatingAction;
+import com.tweener.floatingactiongroup.FloatingActionButtonPool;
 import com.tweener.floatingactiongroup.FloatingActionGroup;
-import com.tweener.floatingactiongroup.FloatingActionLabelledButton;
-import com.tweener.floatingactiongroup.R;
+import com.tweener.floatingactiongroup.FloatingActionGroupSpec;
+import com.tweener.floatingactiongroup.animation.GroupAnimator;
+
+import java.util.List;
 
 /**
- * Custom implementation of {@link FloatingActionGroup} to display FABs vertically.
+ * Custom implementation of {@link FloatingActionGroup} to display FABs vertically.<br>
+ * Children are stacked above the main FAB by default. They are measured and laid out by the {@link com.tweener.floatingactiongroup.layout.LayoutStrategy}
+ * of the group, so the 'actionsDirection' attribute or {@link #setLayoutStrategy(com.tweener.floatingactiongroup.layout.LayoutStrategy)} can place
+ * them below the main FAB or line them up horizontally instead.<br>
+ * With 'maxExpandedHeight', a group populated with {@link #setActions(List)} or 'menu' caps its height and lets its actions scroll above the main
+ * FAB. Only the actions within the visible window are materialized, laid out and animated: the ones scrolled out are recycled to the
+ * {@link FloatingActionButtonPool} and rebound to the ones scrolled in. If no pool has been set with {@link #setButtonPool(FloatingActionButtonPool)},
+ * the group creates its own when the overflow mode is enabled.<br>
+ * The overflow mode expects every action to have the same height: the window and the scroll range are computed from the height of the tallest
+ * action, so shorter actions leave gaps and taller ones overlap.
  *
  * @author Vivien Mahe
  */
@@ -23,214 +35,368 @@ public class FloatingActionVerticalGroup extends FloatingActionGroup {
 
     private static final String TAG = FloatingActionVerticalGroup.class.getSimpleName();
 
-    private static int MARGIN_BETWEEN_FABS;
-    private static int PADDING_VERT;
-    private static int PADDING_RIGHT;
-    private static final boolean MAIN_FAB_SHOULD_ROTATE_DEFAULT = false;
-    private static final int MAIN_FAB_ROTATION_ANGLE_DEFAULT = 45;
-    private static final boolean MAIN_FAB_SHOULD_SCALE_DEFAULT = false;
-    private static final float MAIN_FAB_SCALE_VALUE_DEFAULT = 0.8f;
-    private static final int ANIMATION_DURATION = 300;
+    private final int touchSlop;
+    private int maxExpandedHeight;
+
+    // Every action of the group, null when its children are declared in XML
+    private List<FloatingAction> allActions;
 
-    private final ArgbEvaluator argbEvaluator = new ArgbEvaluator();
+    // Overflow mode: window of the actions currently materialized, 0 being the closest to the main FAB, and scroll of the list in pixels
+    private int windowFirst;
+    private int windowEnd;
+    private int scrollOffset;
+    private int itemExtent;
+    private int listHeight;
+    private final Rect listClipBounds = new Rect();
 
-    private final boolean mainFabShouldRotate;
-    private final int mainFabRotationAngle;
-    private final boolean mainFabShouldScale;
-    private final float mainFabScaleValue;
+    // Measure specs of the last measure pass, to measure the actions materialized during the layout pass
+    private int lastWidthMeasureSpec;
+    private int lastHeightMeasureSpec;
+
+    private float lastTouchY;
+    private boolean isScrolling;
 
     public FloatingActionVerticalGroup(final Context context, final AttributeSet attrs) {
         super(context, attrs);
 
-        MARGIN_BETWEEN_FABS = (int) context.getResources().getDimension(R.dimen.favg_margin_between_fab);
-        PADDING_VERT = (int) context.getResources().getDimension(R.dimen.favg_padding_vert);
-        PADDING_RIGHT = (int) context.getResources().getDimension(R.dimen.falb_padding_horz);
-
-        final TypedArray ta = context.obtainStyledAttributes(attrs, R.styleable.FloatingActionGroup);
-        mainFabShouldRotate = ta.getBoolean(R.styleable.FloatingActionGroup_mainFabShouldRotate, MAIN_FAB_SHOULD_ROTATE_DEFAULT);
-        mainFabRotationAngle = ta.getInteger(R.styleable.FloatingActionGroup_mainFabRotateAngle, MAIN_FAB_ROTATION_ANGLE_DEFAULT);
-        mainFabShouldScale = ta.getBoolean(R.styleable.FloatingActionGroup_mainFabShouldScale, MAIN_FAB_SHOULD_SCALE_DEFAULT);
-        mainFabScaleValue = ta.getFloat(R.styleable.FloatingActionGroup_mainFabScaleValue, MAIN_FAB_SCALE_VALUE_DEFAULT);
-        ta.recycle();
+        maxExpandedHeight = getMaxExpandedHeightAttribute();
+        touchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
 
         configure(context);
     }
 
+    /**
+     * Caps the height of this group, main FAB included, and lets its actions scroll when they do not fit. 0 to disable. Only applies to the actions
+     * set with {@link #setActions(List)} or a menu, which are then expected to have the same height. A {@link FloatingActionButtonPool} is created
+     * if none has been set.
+     *
+     * @param maxExpandedHeight maximum height, in pixels
+     */
+    public void setMaxExpandedHeight(final int maxExpandedHeight) {
+        this.maxExpandedHeight = maxExpandedHeight;
+        scrollOffset = 0;
+
+        if (allActions != null) {
+            setActions(allActions);
+        }
+
+        requestLayout();
+    }
+
     @Override
-    protected boolean onAnimateMainFab(final boolean isExpanded) {
-        // Rotate main FAB 45 degrees clockwise when group expanded.
-        final int fromAngle = isExpanded ? 0 : mainFabRotationAngle;
-        final int toAngle = isExpanded ? mainFabRotationAngle : 0;
-
-        // Scale main FAB
-        final float fromScale = isExpanded ? 1.0f : mainFabScaleValue;
-        final float toScale = isExpanded ? mainFabScaleValue : 1.0f;
-
-        // Change color main FAB
-        final int startColor;
-        final int endColor;
-        if (getBackgroundExpanded() != null) {
-            startColor = isExpanded ? getBackgroundNormal().getDefaultColor() : getBackgroundExpanded().getDefaultColor();
-            endColor = isExpanded ? getBackgroundExpanded().getDefaultColor() : getBackgroundNormal().getDefaultColor();
-        } else {
-            startColor = endColor = 0;
-        }
-
-        final FloatingActionButton mainFAB = getMainFAB();
-
-        final ValueAnimator mainFABAnimator = ValueAnimator.ofFloat(0f, 1f);
-        mainFABAnimator.addUpdateListener(animation -> {
-            final float animatedValue = (float) animation.getAnimatedValue();
-            final float scale = fromScale + ((toScale - fromScale) * animatedValue);
-            final float rotation = fromAngle + ((toAngle - fromAngle) * animatedValue);
-
-            if (mainFabShouldRotate) {
-                mainFAB.setRotation(rotation);
-            }
+    public void setActions(final List<FloatingAction> actions) {
+        allActions = actions;
 
-            if (mainFabShouldScale) {
-                mainFAB.setScaleX(scale);
-                mainFAB.setScaleY(scale);
-            }
+        if (!isOverflowEnabled()) {
+            super.setActions(actions);
+            return;
+        }
 
-            if (getBackgroundExpanded() != null) {
-                final int backgroundColor = (int) argbEvaluator.evaluate(animatedValue, startColor, endColor);
-                mainFAB.setBackgroundTintList(new ColorStateList(new int[][]{new int[]{0}}, new int[]{backgroundColor}));
-            }
-        });
-        mainFABAnimator.setDuration(ANIMATION_DURATION);
-        mainFABAnimator.start();
+        if (getButtonPool() == null) {
+            // Actions scrolled out are recycled to the ones scrolled in
+            setButtonPool(new FloatingActionButtonPool());
+        }
 
+        scrollOffset = Math.min(scrollOffset, getMaxScrollOffset());
+        bindWindow(true);
+    }
+
+    @Override
+    protected boolean onAnimateMainFab(final boolean isExpanded) {
+        // The main FAB follows the progress of the children, see onAnimationProgress()
         return true;
     }
 
     @Override
-    protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+    protected void onAnimationProgress(final float progress) {
+        applyMainFabProgress();
+    }
+
+    @Override
+    protected void onMeasureGroup(final int widthMeasureSpec, final int heightMeasureSpec) {
+        if (!isOverflowEnabled()) {
+            super.onMeasureGroup(widthMeasureSpec, heightMeasureSpec);
+            return;
+        }
+
+        lastWidthMeasureSpec = widthMeasureSpec;
+        lastHeightMeasureSpec = heightMeasureSpec;
         measureChildren(widthMeasureSpec, heightMeasureSpec);
 
-        int width = 0;
-        int height = 0;
+        final View mainFab = getMainFAB();
+        final FloatingActionGroupSpec spec = getSpec();
+
+        int width = mainFab.getMeasuredWidth() + spec.getPaddingHorz();
+        int itemHeight = 0;
 
         final int childCount = getChildCount();
         for (int i = 0; i < childCount; i++) {
             final View child = getChildAt(i);
 
-            if (child.getVisibility() == GONE) {
-                continue;
+            if (child.getVisibility() != GONE && child != mainFab) {
+                width = Math.max(width, child.getMeasuredWidth() + spec.getPaddingHorz());
+                itemHeight = Math.max(itemHeight, child.getMeasuredHeight());
             }
+        }
 
-            width = Math.max(child.getMeasuredWidth(), width);
-            height += child.getMeasuredHeight() + MARGIN_BETWEEN_FABS;
+        // Actions are expected to have the same height. The window has been computed from an estimate until now, it is updated by the layout pass
+        if (itemHeight > 0) {
+            itemExtent = itemHeight + spec.getMarginBetweenFabs();
         }
 
-        // Add padding
-        height += 2 * PADDING_VERT;
-        width += PADDING_RIGHT;
+        final int maxListHeight = Math.max(0, maxExpandedHeight - mainFab.getMeasuredHeight() - 2 * spec.getPaddingVert());
+        listHeight = Math.min(allActions.size() * getItemExtent(), maxListHeight);
 
-        setMeasuredDimension(width, height);
+        setMeasuredDimension(width, listHeight + mainFab.getMeasuredHeight() + 2 * spec.getPaddingVert());
     }
 
     @Override
-    protected void onLayout(final boolean changed, final int l, final int t, final int r, final int b) {
-        final int collapsedMainFabY = b - t - getMainFAB().getMeasuredHeight() - PADDING_VERT;
-        int height = 0;
+    protected void onLayoutGroup(final int l, final int t, final int r, final int b) {
+        if (!isOverflowEnabled()) {
+            super.onLayoutGroup(l, t, r, b);
+            return;
+        }
+
+        // Materializes the actions visible with the measured item extent, which may differ from the estimate the window was computed with
+        scrollOffset = Math.min(scrollOffset, getMaxScrollOffset());
+        if (bindWindow(false)) {
+            measureChildren(lastWidthMeasureSpec, lastHeightMeasureSpec);
+        }
+
+        final View mainFab = getMainFAB();
+        final FloatingActionGroupSpec spec = getSpec();
+        final int width = getMeasuredWidth();
+        final int listBottom = spec.getPaddingVert() + listHeight;
+        final int extent = getItemExtent();
+
+        listClipBounds.set(0, spec.getPaddingVert(), width, listBottom);
+
+        final int mainLeft = width - spec.getPaddingHorz() - mainFab.getMeasuredWidth();
+        mainFab.layout(mainLeft, listBottom, mainLeft + mainFab.getMeasuredWidth(), listBottom + mainFab.getMeasuredHeight());
 
+        final GroupAnimator groupAnimator = getGroupAnimator();
+        groupAnimator.clearChildren();
+
+        int index = windowFirst;
         final int childCount = getChildCount();
-        for (int i = childCount - 1; i >= 0; i--) {
+        for (int i = 0; i < childCount; i++) {
             final View child = getChildAt(i);
 
-            if (child.getVisibility() == GONE || child == getMainFAB()) {
+            if (child.getVisibility() == GONE || child == mainFab) {
                 continue;
             }
 
-            final int childWidth = child.getMeasuredWidth();
-            final int childHeight = child.getMeasuredHeight();
-            final int deltaY = height + childHeight;
-            child.layout(getMeasuredWidth() - childWidth, height, getMeasuredWidth(), deltaY);
-            child.setAlpha(isExpanded() ? 1 : 0);
+            // Scrolling down brings the actions farther from the main FAB into view
+            final int childTop = listBottom - (index + 1) * extent + scrollOffset;
+            child.layout(width - child.getMeasuredWidth(), childTop, width, childTop + child.getMeasuredHeight());
 
-            if (child instanceof FloatingActionLabelledButton) {
-                ((FloatingActionLabelledButton) child).setFabClickListener(listener);
-            }
+            groupAnimator.addChild(child, 0, listBottom - childTop);
+            index++;
+        }
 
-            if (isCollapsed()) {
-                child.setTranslationY(collapsedMainFabY - height);
-            }
+        // Keeps the children where the running animation (or the current state) expects them
+        groupAnimator.applyProgress();
+    }
+
+    /**
+     * Actions are clipped to the list area, so they do not overlap the main FAB when scrolled.
+     */
+    @Override
+    protected boolean drawChild(final Canvas canvas, final View child, final long drawingTime) {
+        if (!isOverflowEnabled() || child == getMainFAB()) {
+            return super.drawChild(canvas, child, drawingTime);
+        }
+
+        final int saveCount = canvas.save();
+        canvas.clipRect(listClipBounds);
+        final boolean result = super.drawChild(canvas, child, drawingTime);
+        canvas.restoreToCount(saveCount);
+        return result;
+    }
+
+    @Override
+    public boolean onInterceptTouchEvent(final MotionEvent ev) {
+        if (!canScroll()) {
+            return super.onInterceptTouchEvent(ev);
+        }
+
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                lastTouchY = ev.getY();
+                isScrolling = false;
+                break;
+
+            case MotionEvent.ACTION_MOVE:
+                startScrollingIfNeeded(ev);
+                break;
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                isScrolling = false;
+                break;
+        }
+
+        return isScrolling;
+    }
+
+    @Override
+    public boolean onTouchEvent(final MotionEvent ev) {
+        if (!canScroll()) {
+            return super.onTouchEvent(ev);
+        }
 
-            height += childHeight + MARGIN_BETWEEN_FABS;
+        switch (ev.getActionMasked()) {
+            case MotionEvent.ACTION_DOWN:
+                // Touches outside of the list go to the views under this group
+                lastTouchY = ev.getY();
+                return listClipBounds.contains((int) ev.getX(), (int) ev.getY());
+
+            case MotionEvent.ACTION_MOVE:
+                startScrollingIfNeeded(ev);
+
+                if (isScrolling) {
+                    scrollListBy(Math.round(ev.getY() - lastTouchY));
+                    lastTouchY = ev.getY();
+                }
+                return true;
+
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_CANCEL:
+                if (isScrolling) {
+                    isScrolling = false;
+
+                    // Collapsed offsets of the children are updated once per gesture
+                    requestLayout();
+                }
+                return true;
         }
 
-        // Places the main button as last
-        final int mainX = getMeasuredWidth() - PADDING_RIGHT;
-        final int mainY = height + PADDING_VERT;
-        getMainFAB().layout(mainX - getMainFAB().getMeasuredWidth(), mainY, mainX, mainY + getMainFAB().getMeasuredHeight());
+        return true;
+    }
+
+    @Override
+    protected int getActionIndex(final View view) {
+        final int index = super.getActionIndex(view);
+        return index >= 0 && isOverflowEnabled() ? windowFirst + index : index;
     }
 
     /**
-     * Expands this {@link FloatingActionVerticalGroup}. Each child will move vertically to its original position above the main FAB.
+     * Expands this {@link FloatingActionVerticalGroup}. Each child will move from behind the main FAB to its original position.
      *
      * @param animate
      */
     @Override
     protected void onExpanded(final boolean animate) {
-        final AccelerateDecelerateInterpolator accDecInterpolator = new AccelerateDecelerateInterpolator();
+        setChildrenExpanded(true);
+        animateGroupTo(1, animate);
+    }
 
-        final int childCount = getChildCount();
-        for (int i = 0; i < childCount; i++) {
-            final View child = getChildAt(i);
+    /**
+     * Each child will translate from their actual position to behind the main FAB.
+     *
+     * @param animate
+     */
+    @Override
+    protected void onCollapsed(final boolean animate) {
+        setChildrenExpanded(false);
+        animateGroupTo(0, animate);
+    }
 
-            if (child.getVisibility() == GONE || child == getMainFAB()) {
-                continue;
-            }
+    private boolean isOverflowEnabled() {
+        return maxExpandedHeight > 0 && allActions != null;
+    }
 
-            if (child instanceof FloatingActionLabelledButton) {
-                ((FloatingActionLabelledButton) child).setExpanded(true);
-            }
+    private boolean canScroll() {
+        return isOverflowEnabled() && isExpanded() && getMaxScrollOffset() > 0;
+    }
 
-            final ValueAnimator animator = ValueAnimator.ofFloat(getMainFAB().getTop() - child.getTop(), 0);
-            animator.setDuration(ANIMATION_DURATION);
-            animator.setInterpolator(accDecInterpolator);
-            animator.addUpdateListener(animation -> {
-                child.setAlpha(animation.getAnimatedFraction());
-                child.setTranslationY((Float) animation.getAnimatedValue());
-            });
-            animator.start();
+    private void startScrollingIfNeeded(final MotionEvent ev) {
+        if (!isScrolling && Math.abs(ev.getY() - lastTouchY) > touchSlop) {
+            isScrolling = true;
+            lastTouchY = ev.getY();
+
+            final ViewParent parent = getParent();
+            if (parent != null) {
+                parent.requestDisallowInterceptTouchEvent(true);
+            }
         }
     }
 
     /**
-     * Each child will translate vertically, from their actual position to behind the main FAB.
-     *
-     * @param animate
+     * Scrolls the actions. Crossing an action boundary rebinds the window, otherwise the materialized actions are only moved, without a layout pass.
      */
-    @Override
-    protected void onCollapsed(final boolean animate) {
-        final AccelerateDecelerateInterpolator accDecInterpolator = new AccelerateDecelerateInterpolator();
+    private void scrollListBy(final int dy) {
+        final int newScrollOffset = Math.max(0, Math.min(getMaxScrollOffset(), scrollOffset + dy));
+        final int delta = newScrollOffset - scrollOffset;
+
+        if (delta == 0) {
+            return;
+        }
+
+        scrollOffset = newScrollOffset;
 
+        if (bindWindow(false)) {
+            return;
+        }
+
+        final View mainFab = getMainFAB();
         final int childCount = getChildCount();
-        for (int i = childCount - 1; i >= 0; i--) {
+        for (int i = 0; i < childCount; i++) {
             final View child = getChildAt(i);
 
-            if (child.getVisibility() == GONE || child == getMainFAB()) {
-                continue;
+            if (child.getVisibility() != GONE && child != mainFab) {
+                child.offsetTopAndBottom(delta);
             }
+        }
 
-            if (child instanceof FloatingActionLabelledButton) {
-                ((FloatingActionLabelledButton) child).setExpanded(false);
-            }
+        invalidate();
+    }
+
+    /**
+     * Materializes the actions visible at the current scroll offset.
+     *
+     * @param force rebinds the window even if it did not change
+     * @return {@code true} if the window has been rebound
+     */
+    private boolean bindWindow(final boolean force) {
+        if (!isOverflowEnabled()) {
+            return false;
+        }
+
+        final int extent = getItemExtent();
+        final int actionCount = allActions.size();
+        final int first = Math.min(actionCount, scrollOffset / extent);
+
+        // One more action is materialized for the one partially visible at each end of the list
+        final int end = Math.min(actionCount, first + maxExpandedHeight / extent + 2);
+
+        if (!force && first == windowFirst && end == windowEnd) {
+            return false;
+        }
+
+        windowFirst = first;
+        windowEnd = end;
 
-            final float deltaY = getMainFAB().getTop() - child.getTop();
-            final float fromYDelta = isExpanded() ? 0 : -deltaY;
-            final float toYDelta = isExpanded() ? deltaY : 0;
+        // Actions scrolled out are released to the pool before the ones scrolled in are acquired from it
+        super.setActions(allActions.subList(first, end));
+        return true;
+    }
+
+    private int getMaxScrollOffset() {
+        final int visibleHeight = listHeight > 0 ? listHeight : maxExpandedHeight;
+        return Math.max(0, allActions.size() * getItemExtent() - visibleHeight);
+    }
 
-            final ValueAnimator animator = ValueAnimator.ofFloat(fromYDelta, toYDelta);
-            animator.setDuration(ANIMATION_DURATION);
-            animator.setInterpolator(accDecInterpolator);
-            animator.addUpdateListener(animation -> {
-                child.setAlpha(1 - animation.getAnimatedFraction());
-                child.setTranslationY((Float) animation.getAnimatedValue());
-            });
-            animator.start();
+    /**
+     * Height of an action and of the margin below it, estimated from the size of a mini FAB until the actions have been measured. Every action is
+     * expected to have this height.
+     */
+    private int getItemExtent() {
+        if (itemExtent > 0) {
+            return itemExtent;
         }
+
+        final FloatingActionGroupSpec spec = getSpec();
+        return Math.max(1, spec.getFlatFabSize() + 2 * spec.getPaddingVert() + spec.getMarginBetweenFabs());
     }
 }
@@ -0,0 +1,135 @@
+package com.tweener.floatingactiongroup.layout;
+
+import java.util.Arrays;
+
+/**
+ * Positions of the main FAB and of the children of a group, computed in one pass by a {@link LayoutStrategy} and consumed by both the measure
+ * and the layout of the group, and by its {@link com.tweener.floatingactiongroup.animation.GroupAnimator}.<br>
+ * Children are indexed from the closest to the main FAB to the farthest. Every position is relative to the top left corner of the group.
+ * Buffers only grow, so computing the layout again does not allocate.
+ *
+ * @author Vivien Mahe
+ */
+public final class GroupLayout {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private int[] childWidths = new int[INITIAL_CAPACITY];
+    private int[] childHeights = new int[INITIAL_CAPACITY];
+    private int[] childLefts = new int[INITIAL_CAPACITY];
+    private int[] childTops = new int[INITIAL_CAPACITY];
+    private int[] collapsedOffsetsX = new int[INITIAL_CAPACITY];
+    private int[] collapsedOffsetsY = new int[INITIAL_CAPACITY];
+    private int childCount;
+
+    private int mainFabWidth;
+    private int mainFabHeight;
+    private int mainFabLeft;
+    private int mainFabTop;
+
+    private int width;
+    private int height;
+
+    /**
+     * Starts a new layout for the given number of children. Called by the group before adding the measured sizes.
+     */
+    public void reset(final int childCount) {
+        if (childCount > childWidths.length) {
+            childWidths = Arrays.copyOf(childWidths, childCount);
+            childHeights = Arrays.copyOf(childHeights, childCount);
+            childLefts = Arrays.copyOf(childLefts, childCount);
+            childTops = Arrays.copyOf(childTops, childCount);
+            collapsedOffsetsX = Arrays.copyOf(collapsedOffsetsX, childCount);
+            collapsedOffsetsY = Arrays.copyOf(collapsedOffsetsY, childCount);
+        }
+
+        this.childCount = childCount;
+        width = 0;
+        height = 0;
+    }
+
+    public void setMainFabSize(final int width, final int height) {
+        mainFabWidth = width;
+        mainFabHeight = height;
+    }
+
+    public void setChildSize(final int index, final int width, final int height) {
+        childWidths[index] = width;
+        childHeights[index] = height;
+    }
+
+    public void setMainFabPosition(final int left, final int top) {
+        mainFabLeft = left;
+        mainFabTop = top;
+    }
+
+    public void setChildPosition(final int index, final int left, final int top) {
+        childLefts[index] = left;
+        childTops[index] = top;
+    }
+
+    /**
+     * Sets the translation of a child when the group is collapsed, relatively to its laid out position.
+     */
+    public void setCollapsedOffset(final int index, final int offsetX, final int offsetY) {
+        collapsedOffsetsX[index] = offsetX;
+        collapsedOffsetsY[index] = offsetY;
+    }
+
+    public void setSize(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public int getChildCount() {
+        return childCount;
+    }
+
+    public int getMainFabWidth() {
+        return mainFabWidth;
+    }
+
+    public int getMainFabHeight() {
+        return mainFabHeight;
+    }
+
+    public int getMainFabLeft() {
+        return mainFabLeft;
+    }
+
+    public int getMainFabTop() {
+        return mainFabTop;
+    }
+
+    public int getChildWidth(final int index) {
+        return childWidths[index];
+    }
+
+    public int getChildHeight(final int index) {
+        return childHeights[index];
+    }
+
+    public int getChildLeft(final int index) {
+        return childLefts[index];
+    }
+
+    public int getChildTop(final int index) {
+        return childTops[index];
+    }
+
+    public int getCollapsedOffsetX(final int index) {
+        return collapsedOffsetsX[index];
+    }
+
+    public int getCollapsedOffsetY(final int index) {
+        return collapsedOffsetsY[index];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,73 @@
+package com.tweener.floatingactiongroup.layout;
+
+/**
+ * Lines the children up on the left or on the right of the main FAB, centered vertically. Collapsed, each child slides horizontally behind the
+ * main FAB.
+ *
+ * @author Vivien Mahe
+ */
+public final class HorizontalLayoutStrategy implements LayoutStrategy {
+
+    public static final int DIRECTION_LEFT = 0;
+    public static final int DIRECTION_RIGHT = 1;
+
+    private final int direction;
+    private final int marginBetweenFabs;
+    private final int paddingHorz;
+    private final int paddingVert;
+
+    /**
+     * @param direction         {@link #DIRECTION_LEFT} or {@link #DIRECTION_RIGHT}
+     * @param marginBetweenFabs space between two consecutive FABs
+     * @param paddingHorz       space on the left and on the right of the line
+     * @param paddingVert       space above and below the line
+     */
+    public HorizontalLayoutStrategy(final int direction, final int marginBetweenFabs, final int paddingHorz, final int paddingVert) {
+        this.direction = direction;
+        this.marginBetweenFabs = marginBetweenFabs;
+        this.paddingHorz = paddingHorz;
+        this.paddingVert = paddingVert;
+    }
+
+    @Override
+    public void computeLayout(final GroupLayout layout) {
+        final int childCount = layout.getChildCount();
+
+        int contentHeight = layout.getMainFabHeight();
+        for (int i = 0; i < childCount; i++) {
+            contentHeight = Math.max(contentHeight, layout.getChildHeight(i));
+        }
+
+        final int centerY = paddingVert + contentHeight / 2;
+        final int mainFabTop = centerY - layout.getMainFabHeight() / 2;
+
+        int x = paddingHorz;
+        if (direction == DIRECTION_LEFT) {
+            // From the farthest child, on the left, to the main FAB
+            for (int i = childCount - 1; i >= 0; i--) {
+                layout.setChildPosition(i, x, centerY - layout.getChildHeight(i) / 2);
+                x += layout.getChildWidth(i) + marginBetweenFabs;
+            }
+
+            layout.setMainFabPosition(x, mainFabTop);
+            x += layout.getMainFabWidth();
+        } else {
+            layout.setMainFabPosition(x, mainFabTop);
+            x += layout.getMainFabWidth();
+
+            for (int i = 0; i < childCount; i++) {
+                x += marginBetweenFabs;
+                layout.setChildPosition(i, x, centerY - layout.getChildHeight(i) / 2);
+                x += layout.getChildWidth(i);
+            }
+        }
+
+        // Children are centered on the main FAB when collapsed
+        final int mainFabCenterX = layout.getMainFabLeft() + layout.getMainFabWidth() / 2;
+        for (int i = 0; i < childCount; i++) {
+            layout.setCollapsedOffset(i, mainFabCenterX - (layout.getChildLeft(i) + layout.getChildWidth(i) / 2), 0);
+        }
+
+        layout.setSize(x + paddingHorz, contentHeight + 2 * paddingVert);
+    }
+}
@@ -0,0 +1,17 @@
+package com.tweener.floatingactiongroup.layout;
+
+/**
+ * Places the children of a {@link com.tweener.floatingactiongroup.FloatingActionGroup} around its main FAB.<br>
+ * A strategy only works on the measured sizes of a {@link GroupLayout}, so a new arrangement does not require to subclass a group and duplicate its
+ * measurement loop.
+ *
+ * @author Vivien Mahe
+ */
+public interface LayoutStrategy {
+
+    /**
+     * Computes, from the measured sizes of the given layout, the size of the group, the positions of the main FAB and of each child, and the
+     * collapsed offset of each child. Called once per measure pass, must not allocate.
+     */
+    void computeLayout(GroupLayout layout);
+}
@@ -0,0 +1,74 @@
+package com.tweener.floatingactiongroup.layout;
+
+/**
+ * Stacks the children above or below the main FAB, aligned on the end edge of the group. Collapsed, each child slides vertically behind the main
+ * FAB.
+ *
+ * @author Vivien Mahe
+ */
+public final class VerticalLayoutStrategy implements LayoutStrategy {
+
+    public static final int DIRECTION_UP = 0;
+    public static final int DIRECTION_DOWN = 1;
+
+    private final int direction;
+    private final int marginBetweenFabs;
+    private final int paddingVert;
+    private final int paddingEnd;
+
+    /**
+     * @param direction         {@link #DIRECTION_UP} or {@link #DIRECTION_DOWN}
+     * @param marginBetweenFabs space between two consecutive FABs
+     * @param paddingVert       space between the main FAB and the closest child, and between the main FAB and the near edge of the group
+     * @param paddingEnd        space between the main FAB and the end edge of the group
+     */
+    public VerticalLayoutStrategy(final int direction, final int marginBetweenFabs, final int paddingVert, final int paddingEnd) {
+        this.direction = direction;
+        this.marginBetweenFabs = marginBetweenFabs;
+        this.paddingVert = paddingVert;
+        this.paddingEnd = paddingEnd;
+    }
+
+    @Override
+    public void computeLayout(final GroupLayout layout) {
+        final int childCount = layout.getChildCount();
+
+        int width = layout.getMainFabWidth() + paddingEnd;
+        for (int i = 0; i < childCount; i++) {
+            width = Math.max(width, layout.getChildWidth(i) + paddingEnd);
+        }
+
+        // The farthest child touches the edge of the group, the main FAB is separated from the closest one by a margin and the vertical padding
+        int height = layout.getMainFabHeight() + marginBetweenFabs + 2 * paddingVert;
+        for (int i = 0; i < childCount; i++) {
+            height += layout.getChildHeight(i) + marginBetweenFabs;
+        }
+
+        if (direction == DIRECTION_UP) {
+            // From the farthest child, at the top, down to the main FAB
+            int y = 0;
+            for (int i = childCount - 1; i >= 0; i--) {
+                layout.setChildPosition(i, width - layout.getChildWidth(i), y);
+                y += layout.getChildHeight(i) + marginBetweenFabs;
+            }
+
+            layout.setMainFabPosition(width - paddingEnd - layout.getMainFabWidth(), y + paddingVert);
+        } else {
+            // Mirror of the upward stack, from the farthest child, at the bottom, up to the main FAB
+            int y = height;
+            for (int i = childCount - 1; i >= 0; i--) {
+                y -= layout.getChildHeight(i);
+                layout.setChildPosition(i, width - layout.getChildWidth(i), y);
+                y -= marginBetweenFabs;
+            }
+
+            layout.setMainFabPosition(width - paddingEnd - layout.getMainFabWidth(), y - paddingVert - layout.getMainFabHeight());
+        }
+
+        for (int i = 0; i < childCount; i++) {
+            layout.setCollapsedOffset(i, 0, layout.getMainFabTop() - layout.getChildTop(i));
+        }
+
+        layout.setSize(width, height);
+    }
+}
@@ -0,0 +1,27 @@
+package com.tweener.floatingactiongroup.util;
+
+import android.graphics.Color;
+
+/**
+ * @author Vivien Mahe
+ */
+public final class ColorUtils {
+
+    private ColorUtils() {
+    }
+
+    /**
+     * Interpolates between two ARGB colors on primitives, without boxing.
+     *
+     * @param fraction   0 returns the start color, 1 the end color
+     * @param startColor start color
+     * @param endColor   end color
+     */
+    public static int blend(final float fraction, final int startColor, final int endColor) {
+        final int a = (int) (Color.alpha(startColor) + (Color.alpha(endColor) - Color.alpha(startColor)) * fraction);
+        final int r = (int) (Color.red(startColor) + (Color.red(endColor) - Color.red(startColor)) * fraction);
+        final int g = (int) (Color.green(startColor) + (Color.green(endColor) - Color.green(startColor)) * fraction);
+        final int b = (int) (Color.blue(startColor) + (Color.blue(endColor) - Color.blue(startColor)) * fraction);
+        return Color.argb(a, r, g, b);
+    }
+}
@@ -2,6 +2,7 @@ package com.tweener.floatingactiongroup.util;
 
 import android.content.Context;
 import android.content.res.TypedArray;
+import android.graphics.Typeface;
 import android.support.v7.widget.AppCompatTextView;
 import android.text.TextUtils;
 import android.util.AttributeSet;
@@ -9,9 +10,17 @@ import android.util.AttributeSet;
 import com.tweener.floatingactiongroup.R;
 
 /**
- * Allows the font file to be loaded from an asset. Include the extension in the file name.
+ * Allows the font file to be loaded from an asset. Include the extension in the file name.<br>
+ * Texts set with {@link #setPrecomputableText(CharSequence)} are precomputed in the background by {@link TextPrecomputer}.
  */
 public class CustomTextView extends AppCompatTextView {
+
+    // Last text set with setPrecomputableText(), and its width and text parameters once precomputed below API 28
+    private CharSequence precomputableText;
+    private float precomputedWidth = -1;
+    private float precomputedTextSize;
+    private Typeface precomputedTypeface;
+
     public CustomTextView(final Context context) {
         super(context);
     }
@@ -33,4 +42,67 @@ public class CustomTextView extends AppCompatTextView {
             setTypeface(Typefaces.createFromAsset(context.getAssets(), fontFileName));
         }
     }
+
+    /**
+     * Sets a text precomputed with the current text parameters of this view. A text already precomputed is applied right away. Otherwise the text
+     * is set as is, so it is never displayed late, and precomputed in the background: the result replaces it if it is ready before this view is
+     * laid out, and is cached for the next time the same text is set.
+     */
+    public void setPrecomputableText(final CharSequence text) {
+        precomputableText = text;
+        precomputedWidth = -1;
+
+        final TextPrecomputer.Result result = isInEditMode() ? null : TextPrecomputer.getCachedResult(text, this);
+        if (result != null) {
+            applyPrecomputedResult(result);
+            return;
+        }
+
+        setText(text);
+
+        if (!isInEditMode()) {
+            TextPrecomputer.precompute(text, this, this::onTextPrecomputed);
+        }
+    }
+
+    private void onTextPrecomputed(final CharSequence text) {
+        // Replacing a text already laid out would only lay it out again
+        if (text != precomputableText || !isLayoutRequested()) {
+            return;
+        }
+
+        // Text parameters changed in the meantime do not match the result anymore
+        final TextPrecomputer.Result result = TextPrecomputer.getCachedResult(text, this);
+        if (result != null) {
+            applyPrecomputedResult(result);
+        }
+    }
+
+    private void applyPrecomputedResult(final TextPrecomputer.Result result) {
+        precomputedWidth = result.getWidth();
+        precomputedTextSize = getTextSize();
+        precomputedTypeface = getTypeface();
+
+        // Below API 28, the precomputed text is the text itself, which may already be set
+        if (getText() != result.getText()) {
+            setText(result.getText());
+        }
+    }
+
+    @Override
+    protected void onMeasure(final int widthMeasureSpec, final int heightMeasureSpec) {
+        // Below API 28, the width precomputed in the background spares the measurement of the text, as long as the text and its parameters did not
+        // change since
+        if (precomputedWidth >= 0 && getText() == precomputableText && getTextSize() == precomputedTextSize && getTypeface() == precomputedTypeface
+                && getTransformationMethod() == null && MeasureSpec.getMode(widthMeasureSpec) != MeasureSpec.EXACTLY) {
+            final int width = (int) Math.ceil(precomputedWidth) + getCompoundPaddingLeft() + getCompoundPaddingRight();
+
+            if (MeasureSpec.getMode(widthMeasureSpec) == MeasureSpec.UNSPECIFIED || width <= MeasureSpec.getSize(widthMeasureSpec)) {
+                super.onMeasure(MeasureSpec.makeMeasureSpec(width, MeasureSpec.EXACTLY), heightMeasureSpec);
+                return;
+            }
+        }
+
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
 }
@@ -1,11 +1,16 @@
 package com.tweener.floatingactiongroup.util;
 
 import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.Resources;
+import android.graphics.ColorFilter;
 import android.graphics.PorterDuff;
+import android.graphics.PorterDuffColorFilter;
 import android.graphics.drawable.Drawable;
-import android.support.v4.content.res.ResourcesCompat;
-import android.util.Log;
+import android.os.Looper;
+import android.support.v4.content.ContextCompat;
+import android.support.v7.content.res.AppCompatResources;
+import android.util.LruCache;
 
 /**
  * @author Vivien Mahe
@@ -15,33 +20,206 @@ public final class DrawableUtils {
 
     private static final String TAG = DrawableUtils.class.getSimpleName();
 
+    private static final PorterDuff.Mode DEFAULT_MODE = PorterDuff.Mode.SRC_ATOP;
+
+    private static final int MAX_TINTED_DRAWABLES = 64;
+
+    // Prepared tinted drawables, keyed by drawable resource id, color, mode, configuration and theme, so drawables of another density or night
+    // mode, or resolving their theme attributes against another theme, are never shared
+    private static final LruCache<TintKey, TintedDrawable> TINTED_DRAWABLES = new LruCache<>(MAX_TINTED_DRAWABLES);
+
+    // Lookups are made on the main thread, with this key, so a cache hit does not allocate
+    private static final TintKey LOOKUP_KEY = new TintKey();
+
     private DrawableUtils() {
     }
 
     /**
-     * Applies a color to a given {@link Drawable}.
+     * Applies a color resource to a given {@link Drawable}. The drawable is mutated first, so the color does not leak to the other drawables loaded
+     * from the same resource.
      *
      * @param context
      * @param drawable
-     * @param resId
+     * @param resId    color resource id. Use {@link #applyColorInt(Context, Drawable, int)} to apply a color value.
+     * @throws IllegalArgumentException if resId is not a color resource, e.g. a color value
      */
     public static void applyColor(final Context context, final Drawable drawable, final int resId) {
         if (context == null || drawable == null) {
             return;
         }
 
-        int color;
-
+        final int color;
         try {
-            color = ResourcesCompat.getColor(context.getResources(), resId, null);
+            color = resolveColor(context, resId);
         } catch (final Resources.NotFoundException ex) {
-            color = resId;
+            throw new IllegalArgumentException("Not a color resource: 0x" + Integer.toHexString(resId)
+                    + ". Use applyColorInt() to apply a color value.", ex);
         }
 
-        try {
-            drawable.setColorFilter(color, PorterDuff.Mode.SRC_ATOP);
-        } catch (final Resources.NotFoundException ex) {
-            Log.e(TAG, "applyColor: ", ex);
+        applyColorInt(context, drawable, color);
+    }
+
+    /**
+     * Applies a color value to a given {@link Drawable}. The drawable is mutated first, so the color does not leak to the other drawables loaded
+     * from the same resource.
+     *
+     * @param context
+     * @param drawable
+     * @param color    the color to apply, not a resource id
+     */
+    public static void applyColorInt(final Context context, final Drawable drawable, final int color) {
+        if (context == null || drawable == null) {
+            return;
+        }
+
+        drawable.mutate().setColorFilter(color, DEFAULT_MODE);
+    }
+
+    /**
+     * Resolves a color resource.
+     */
+    public static int resolveColor(final Context context, final int colorResId) {
+        return ContextCompat.getColor(context, colorResId);
+    }
+
+    /**
+     * Same as {@link #getTintedDrawable(Context, int, int, PorterDuff.Mode)} with the {@link PorterDuff.Mode#SRC_ATOP} mode.
+     */
+    public static Drawable getTintedDrawable(final Context context, final int drawableResId, final int color) {
+        return getTintedDrawable(context, drawableResId, color, DEFAULT_MODE);
+    }
+
+    /**
+     * Returns a new instance of a drawable tinted with the given color. The tinted drawable is prepared once per (drawable, color, mode): every
+     * instance returned for the same key, configuration and theme shares its state and color filter, and the original drawable resource is left
+     * untouched. The most recently used tinted drawables are kept.<br>
+     * The theme is compared by identity, as themes are not comparable by content: contexts with their own theme instance (e.g. each activity)
+     * prepare their own tinted drawables.
+     *
+     * @param context
+     * @param drawableResId drawable resource id
+     * @param color         the color to apply, or 0 to return the drawable untinted
+     * @param mode          tint mode
+     */
+    public static Drawable getTintedDrawable(final Context context, final int drawableResId, final int color, final PorterDuff.Mode mode) {
+        if (drawableResId == 0) {
+            return null;
+        }
+
+        if (color == 0) {
+            return AppCompatResources.getDrawable(context, drawableResId);
+        }
+
+        final Resources resources = context.getResources();
+        final Configuration configuration = resources.getConfiguration();
+        final Resources.Theme theme = context.getTheme();
+
+        TintedDrawable tintedDrawable;
+        if (Looper.myLooper() == Looper.getMainLooper()) {
+            LOOKUP_KEY.set(drawableResId, color, mode, configuration, theme);
+            tintedDrawable = TINTED_DRAWABLES.get(LOOKUP_KEY);
+
+            // The key must not keep the configuration and theme alive
+            LOOKUP_KEY.set(0, 0, null, null, null);
+        } else {
+            tintedDrawable = TINTED_DRAWABLES.get(new TintKey(drawableResId, color, mode, configuration, theme));
+        }
+
+        if (tintedDrawable == null) {
+            final Drawable drawable = AppCompatResources.getDrawable(context, drawableResId);
+
+            if (drawable == null) {
+                return null;
+            }
+
+            tintedDrawable = new TintedDrawable(drawable.mutate(), new PorterDuffColorFilter(color, mode));
+            tintedDrawable.drawable.setColorFilter(tintedDrawable.colorFilter);
+
+            // The framework may update its configuration in place, so the key must be a copy
+            TINTED_DRAWABLES.put(new TintKey(drawableResId, color, mode, new Configuration(configuration), theme), tintedDrawable);
+        }
+
+        final Drawable instance = tintedDrawable.newDrawable(resources);
+        if (instance != null) {
+            return instance;
+        }
+
+        // Without constant state, the prepared drawable cannot be shared
+        final Drawable drawable = AppCompatResources.getDrawable(context, drawableResId);
+        applyColorInt(context, drawable, color);
+        return drawable;
+    }
+
+    private static final class TintedDrawable {
+        private final Drawable drawable;
+        private final ColorFilter colorFilter;
+
+        private TintedDrawable(final Drawable drawable, final ColorFilter colorFilter) {
+            this.drawable = drawable;
+            this.colorFilter = colorFilter;
+        }
+
+        private Drawable newDrawable(final Resources resources) {
+            final Drawable.ConstantState constantState = drawable.getConstantState();
+
+            if (constantState == null) {
+                return null;
+            }
+
+            // Drawables keeping their color filter outside of their constant state need it to be set again
+            final Drawable instance = constantState.newDrawable(resources);
+            instance.setColorFilter(colorFilter);
+            return instance;
+        }
+    }
+
+    private static final class TintKey {
+        private int drawableResId;
+        private int color;
+        private PorterDuff.Mode mode;
+        private Configuration configuration;
+        private Resources.Theme theme;
+
+        private TintKey() {
+        }
+
+        private TintKey(final int drawableResId, final int color, final PorterDuff.Mode mode, final Configuration configuration,
+                        final Resources.Theme theme) {
+            set(drawableResId, color, mode, configuration, theme);
+        }
+
+        private void set(final int drawableResId, final int color, final PorterDuff.Mode mode, final Configuration configuration,
+                         final Resources.Theme theme) {
+            this.drawableResId = drawableResId;
+            this.color = color;
+            this.mode = mode;
+            this.configuration = configuration;
+            this.theme = theme;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof TintKey)) {
+                return false;
+            }
+
+            final TintKey key = (TintKey) o;
+            return drawableResId == key.drawableResId && color == key.color && mode == key.mode && theme == key.theme
+                    && configuration.equals(key.configuration);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = drawableResId;
+            result = 31 * result + color;
+            result = 31 * result + mode.hashCode();
+            result = 31 * result + configuration.hashCode();
+            result = 31 * result + System.identityHashCode(theme);
+            return result;
         }
     }
 }
@@ -0,0 +1,252 @@
+package com.tweener.floatingactiongroup.util;
+
+import android.graphics.Typeface;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Layout;
+import android.text.PrecomputedText;
+import android.text.TextPaint;
+import android.text.TextUtils;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.TextView;
+
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Precomputes label texts on a background thread, so they can be applied to their TextView without being measured on the main thread.<br>
+ * On API 28 and above, texts are precomputed as {@link PrecomputedText}, which a TextView lays out without measuring the text again. Below API 28,
+ * only their width is measured: it spares the TextView the measurement of its desired width, and fills the text layout cache of the framework,
+ * so the layout the TextView still builds is a cache hit.<br>
+ * Results are cached per text and text parameters (typeface, size, scale, letter spacing, locale...), taken from the actual paint of the
+ * TextView displaying the text, so identical labels are only precomputed once.
+ *
+ * @author Vivien Mahe
+ */
+public final class TextPrecomputer {
+
+    public interface OnTextPrecomputedListener {
+        /**
+         * Called on the main thread once the given text has been precomputed. The result can be read with
+         * {@link #getCachedResult(CharSequence, TextView)}.
+         */
+        void onTextPrecomputed(CharSequence text);
+    }
+
+    private static final String TAG = TextPrecomputer.class.getSimpleName();
+
+    private static final int MAX_SIZE = 128;
+
+    // Precomputed texts, keyed by (text, text parameters)
+    private static final LruCache<Key, Result> RESULTS = new LruCache<>(MAX_SIZE);
+
+    private static Executor executor;
+
+    private TextPrecomputer() {
+    }
+
+    /**
+     * Returns the result of a previous precomputation of the given text, with the current text parameters of the given TextView, or {@code null}
+     * if it has not been precomputed yet.
+     */
+    public static Result getCachedResult(final CharSequence text, final TextView textView) {
+        if (TextUtils.isEmpty(text)) {
+            return null;
+        }
+
+        return RESULTS.get(new Key(text.toString(), getTextParams(textView)));
+    }
+
+    /**
+     * Precomputes the given text on a background thread, with the current text parameters of the given TextView. The text parameters are read
+     * immediately: the TextView is not accessed from the background thread.
+     *
+     * @param text     text to precompute
+     * @param textView TextView the text is meant for
+     * @param listener notified on the main thread once the result is cached, or {@code null}
+     */
+    public static void precompute(final CharSequence text, final TextView textView, final OnTextPrecomputedListener listener) {
+        if (TextUtils.isEmpty(text)) {
+            return;
+        }
+
+        final Key key = new Key(text.toString(), getTextParams(textView));
+        if (RESULTS.get(key) != null) {
+            return;
+        }
+
+        getExecutor().execute(() -> {
+            try {
+                if (RESULTS.get(key) == null) {
+                    RESULTS.put(key, computeResult(key));
+                }
+
+                if (listener != null) {
+                    new Handler(Looper.getMainLooper()).post(() -> listener.onTextPrecomputed(text));
+                }
+            } catch (final RuntimeException ex) {
+                Log.e(TAG, "precompute: ", ex);
+            }
+        });
+    }
+
+    /**
+     * Sets the executor texts are precomputed with. Defaults to a single background daemon thread.
+     */
+    public static synchronized void setExecutor(final Executor executor) {
+        TextPrecomputer.executor = executor;
+    }
+
+    private static synchronized Executor getExecutor() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadExecutor(new DaemonThreadFactory(TAG));
+        }
+
+        return executor;
+    }
+
+    /**
+     * Returns the parameters the text of a TextView is measured with: {@link PrecomputedText.Params} on API 28 and above, a copy of its paint below.
+     */
+    private static Object getTextParams(final TextView textView) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            return textView.getTextMetricsParams();
+        }
+
+        return new PaintParams(textView.getPaint());
+    }
+
+    private static Result computeResult(final Key key) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+            return new Result(PrecomputedText.create(key.text, (PrecomputedText.Params) key.params), -1);
+        }
+
+        return new Result(key.text, Layout.getDesiredWidth(key.text, ((PaintParams) key.params).paint));
+    }
+
+    /**
+     * Text precomputed for a TextView.
+     */
+    public static final class Result {
+        private final CharSequence text;
+        private final float width;
+
+        private Result(final CharSequence text, final float width) {
+            this.text = text;
+            this.width = width;
+        }
+
+        /**
+         * Returns the text to set on the TextView: a {@link PrecomputedText} on API 28 and above, the original text below.
+         */
+        public CharSequence getText() {
+            return text;
+        }
+
+        /**
+         * Returns the desired width of the text, in pixels, or -1 when the text itself is precomputed.
+         */
+        public float getWidth() {
+            return width;
+        }
+    }
+
+    /**
+     * Paint parameters changing the width of a text, compared by value. Holds its own copy of the paint, which is only read afterwards, so it
+     * can be used from the background thread.
+     */
+    private static final class PaintParams {
+        private final TextPaint paint;
+        private final Typeface typeface;
+        private final float textSize;
+        private final float textScaleX;
+        private final float textSkewX;
+        private final int flags;
+        private final Locale locale;
+        private final float letterSpacing;
+        private final String fontFeatureSettings;
+
+        private PaintParams(final TextPaint paint) {
+            this.paint = new TextPaint(paint);
+            typeface = paint.getTypeface();
+            textSize = paint.getTextSize();
+            textScaleX = paint.getTextScaleX();
+            textSkewX = paint.getTextSkewX();
+            flags = paint.getFlags();
+            locale = paint.getTextLocale();
+
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+                letterSpacing = paint.getLetterSpacing();
+                fontFeatureSettings = paint.getFontFeatureSettings();
+            } else {
+                letterSpacing = 0;
+                fontFeatureSettings = null;
+            }
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof PaintParams)) {
+                return false;
+            }
+
+            final PaintParams params = (PaintParams) o;
+            return textSize == params.textSize && textScaleX == params.textScaleX && textSkewX == params.textSkewX && flags == params.flags
+                    && letterSpacing == params.letterSpacing && equals(typeface, params.typeface) && equals(locale, params.locale)
+                    && TextUtils.equals(fontFeatureSettings, params.fontFeatureSettings);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = typeface != null ? typeface.hashCode() : 0;
+            result = 31 * result + Float.floatToIntBits(textSize);
+            result = 31 * result + Float.floatToIntBits(textScaleX);
+            result = 31 * result + Float.floatToIntBits(textSkewX);
+            result = 31 * result + flags;
+            result = 31 * result + (locale != null ? locale.hashCode() : 0);
+            result = 31 * result + Float.floatToIntBits(letterSpacing);
+            result = 31 * result + (fontFeatureSettings != null ? fontFeatureSettings.hashCode() : 0);
+            return result;
+        }
+
+        private static boolean equals(final Object a, final Object b) {
+            return a == null ? b == null : a.equals(b);
+        }
+    }
+
+    private static final class Key {
+        private final String text;
+        private final Object params;
+
+        private Key(final String text, final Object params) {
+            this.text = text;
+            this.params = params;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+
+            if (!(o instanceof Key)) {
+                return false;
+            }
+
+            final Key key = (Key) o;
+            return text.equals(key.text) && params.equals(key.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * text.hashCode() + params.hashCode();
+        }
+    }
+}
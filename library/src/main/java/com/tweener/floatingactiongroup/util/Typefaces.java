@@ -2,29 +2,151 @@ package com.tweener.floatingactiongroup.util;
 
 import android.content.res.AssetManager;
 import android.graphics.Typeface;
+import android.util.Log;
+import android.util.LruCache;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Thread-safe and bounded cache of the {@link Typeface} loaded from the assets.<br>
+ * Fonts can be preloaded on a background thread, e.g. from {@code Application.onCreate()}, so inflating views only hits the cache. A font requested
+ * by several threads at once is only read from the assets once: the other threads wait for it.
+ *
  * @author Vivien Mahe
  */
 public final class Typefaces {
 
-    private static final Map<String, Typeface> TYPEFACES = new HashMap<>();
+    private static final String TAG = Typefaces.class.getSimpleName();
+
+    private static final int MAX_SIZE = 16;
+
+    private static final LruCache<String, Typeface> TYPEFACES = new LruCache<>(MAX_SIZE);
+    // Counted once per lookup, unlike the statistics of the LruCache which also count the checks made by the loads and the preloads
+    private static final AtomicLong HIT_COUNT = new AtomicLong();
+    private static final AtomicLong MISS_COUNT = new AtomicLong();
+    private static final AtomicLong LOAD_COUNT = new AtomicLong();
+    private static final AtomicLong LOAD_TIME_NANOS = new AtomicLong();
+
+    // One lock per font being loaded, so concurrent lookups of the same font wait for a single load while other fonts load in parallel
+    private static final ConcurrentMap<String, Object> LOAD_LOCKS = new ConcurrentHashMap<>();
+
+    private static Executor preloadExecutor;
 
     private Typefaces() {
     }
 
     public static Typeface createFromAsset(final AssetManager assets, final String fontFileName) {
-        final Typeface typeface;
-        if (TYPEFACES.containsKey(fontFileName)) {
-            typeface = TYPEFACES.get(fontFileName);
+        Typeface typeface = TYPEFACES.get(fontFileName);
+
+        if (typeface != null) {
+            HIT_COUNT.incrementAndGet();
         } else {
-            typeface = Typeface.createFromAsset(assets, fontFileName);
-            TYPEFACES.put(fontFileName, typeface);
+            MISS_COUNT.incrementAndGet();
+            typeface = load(assets, fontFileName);
         }
 
         return typeface;
     }
+
+    /**
+     * Loads the given fonts on a background thread, so they are in the cache when views are inflated.
+     *
+     * @param assets        assets of the application
+     * @param fontFileNames font files to load, extensions included
+     */
+    public static void preload(final AssetManager assets, final String... fontFileNames) {
+        preload(getPreloadExecutor(), assets, fontFileNames);
+    }
+
+    /**
+     * Loads the given fonts with the given {@link Executor}, so they are in the cache when views are inflated.
+     */
+    public static void preload(final Executor executor, final AssetManager assets, final String... fontFileNames) {
+        executor.execute(() -> {
+            for (final String fontFileName : fontFileNames) {
+                if (TYPEFACES.get(fontFileName) == null) {
+                    try {
+                        load(assets, fontFileName);
+                    } catch (final RuntimeException ex) {
+                        Log.e(TAG, "preload: ", ex);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Number of calls to {@link #createFromAsset(AssetManager, String)} that found their font in the cache.
+     */
+    public static long getHitCount() {
+        return HIT_COUNT.get();
+    }
+
+    /**
+     * Number of calls to {@link #createFromAsset(AssetManager, String)} that did not find their font in the cache. Preloads are not counted.
+     */
+    public static long getMissCount() {
+        return MISS_COUNT.get();
+    }
+
+    /**
+     * Number of fonts loaded from the assets, synchronously or preloaded.
+     */
+    public static long getLoadCount() {
+        return LOAD_COUNT.get();
+    }
+
+    /**
+     * Total time, in milliseconds, spent loading fonts from the assets.
+     */
+    public static long getLoadTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(LOAD_TIME_NANOS.get());
+    }
+
+    /**
+     * Total time, in nanoseconds, spent loading fonts from the assets.
+     */
+    public static long getLoadTimeNanos() {
+        return LOAD_TIME_NANOS.get();
+    }
+
+    private static Typeface load(final AssetManager assets, final String fontFileName) {
+        final Object newLock = new Object();
+        final Object existingLock = LOAD_LOCKS.putIfAbsent(fontFileName, newLock);
+        final Object lock = existingLock != null ? existingLock : newLock;
+
+        synchronized (lock) {
+            try {
+                // Another thread may have loaded this font while this one was waiting for it
+                Typeface typeface = TYPEFACES.get(fontFileName);
+                if (typeface != null) {
+                    return typeface;
+                }
+
+                final long start = System.nanoTime();
+                typeface = Typeface.createFromAsset(assets, fontFileName);
+                LOAD_TIME_NANOS.addAndGet(System.nanoTime() - start);
+                LOAD_COUNT.incrementAndGet();
+
+                TYPEFACES.put(fontFileName, typeface);
+                return typeface;
+            } finally {
+                // The font is in the cache by now, the threads arriving later do not need the lock anymore
+                LOAD_LOCKS.remove(fontFileName, lock);
+            }
+        }
+    }
+
+    private static synchronized Executor getPreloadExecutor() {
+        if (preloadExecutor == null) {
+            preloadExecutor = Executors.newSingleThreadExecutor(new DaemonThreadFactory(TAG));
+        }
+
+        return preloadExecutor;
+    }
 }
@@ -0,0 +1,152 @@
+package com.tweener.floatingactiongroup;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+
+import static com.tweener.floatingactiongroup.GroupTestFixture.createActionsWithIds;
+import static com.tweener.floatingactiongroup.GroupTestFixture.findActionButton;
+import static com.tweener.floatingactiongroup.GroupTestFixture.getActionButtons;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * {@link FloatingActionButtonPool} on its own, and shared by a group through {@link FloatingActionGroup#setButtonPool(FloatingActionButtonPool)}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionButtonPoolTest {
+
+    private Context context;
+    private Context otherContext;
+    private FloatingActionGroup group;
+    private FloatingActionButtonPool pool;
+
+    @Before
+    public void setUp() {
+        final GroupTestFixture fixture = new GroupTestFixture();
+        context = fixture.context;
+        otherContext = new ContextThemeWrapper(RuntimeEnvironment.application, R.style.Theme_AppCompat);
+        group = fixture.createVerticalGroup(new ArrayList<>());
+        pool = new FloatingActionButtonPool();
+    }
+
+    @Test
+    public void returnsTheLastReleasedButtonFirst() {
+        final FloatingActionLabelledButton first = new FloatingActionLabelledButton(context);
+        final FloatingActionLabelledButton second = new FloatingActionLabelledButton(context);
+        pool.putRecycledButton(first);
+        pool.putRecycledButton(second);
+
+        assertSame(second, pool.getRecycledButton());
+        assertSame(first, pool.getRecycledButton());
+        assertNull(pool.getRecycledButton());
+    }
+
+    @Test
+    public void rejectsButtonsStillAttachedToAParent() {
+        final FloatingActionLabelledButton button = new FloatingActionLabelledButton(context);
+        new FrameLayout(context).addView(button);
+
+        pool.putRecycledButton(button);
+
+        assertEquals(0, pool.getRecycledButtonCount());
+    }
+
+    @Test
+    public void rejectsTheSameButtonTwice() {
+        final FloatingActionLabelledButton button = new FloatingActionLabelledButton(context);
+
+        pool.putRecycledButton(button);
+        pool.putRecycledButton(button);
+
+        assertEquals(1, pool.getRecycledButtonCount());
+    }
+
+    @Test
+    public void dropsButtonsAboveItsMaximum() {
+        pool.setMaxRecycledButtons(2);
+        for (int i = 0; i < 3; i++) {
+            pool.putRecycledButton(new FloatingActionLabelledButton(context));
+        }
+
+        assertEquals(2, pool.getRecycledButtonCount());
+
+        pool.setMaxRecycledButtons(1);
+        assertEquals(1, pool.getRecycledButtonCount());
+    }
+
+    @Test
+    public void onlyReturnsButtonsOfTheRequestedContext() {
+        final FloatingActionLabelledButton button = new FloatingActionLabelledButton(context);
+        final FloatingActionLabelledButton otherButton = new FloatingActionLabelledButton(otherContext);
+        pool.putRecycledButton(button);
+        pool.putRecycledButton(otherButton);
+
+        assertSame(button, pool.getRecycledButton(context));
+        assertNull(pool.getRecycledButton(context));
+        assertEquals(1, pool.getRecycledButtonCount());
+        assertSame(otherButton, pool.getRecycledButton(otherContext));
+    }
+
+    @Test
+    public void onlyReturnsButtonsOfTheRequestedClass() {
+        final FloatingActionFlatLabelledButton flatButton = new FloatingActionFlatLabelledButton(context);
+        final FloatingActionLabelledButton button = new FloatingActionLabelledButton(context);
+        pool.putRecycledButton(flatButton);
+        pool.putRecycledButton(button);
+
+        assertSame(flatButton, pool.getRecycledButton(context, FloatingActionFlatLabelledButton.class));
+        assertNull(pool.getRecycledButton(context, FloatingActionFlatLabelledButton.class));
+        assertSame(button, pool.getRecycledButton(context));
+    }
+
+    @Test
+    public void groupReleasesRemovedButtonsBeforeAcquiringNewOnes() {
+        group.setButtonPool(pool);
+        group.setActions(createActionsWithIds(1, 2));
+        final View button2 = findActionButton(group, 2);
+
+        // Action 2 is replaced by action 3: its button is rebound instead of creating a new one
+        group.setActions(createActionsWithIds(1, 3));
+
+        assertSame(button2, findActionButton(group, 3));
+        assertEquals(0, pool.getRecycledButtonCount());
+    }
+
+    @Test
+    public void groupReleasesEveryButtonWhenCleared() {
+        group.setButtonPool(pool);
+        group.setActions(createActionsWithIds(1, 2, 3));
+
+        group.clearActions();
+
+        assertEquals(0, getActionButtons(group).size());
+        assertEquals(3, pool.getRecycledButtonCount());
+    }
+
+    @Test
+    public void groupKeepsButtonsOfAnotherContextInThePool() {
+        final FloatingActionLabelledButton foreignButton = new FloatingActionLabelledButton(otherContext);
+        pool.putRecycledButton(foreignButton);
+        group.setButtonPool(pool);
+
+        group.setActions(createActionsWithIds(1));
+
+        assertNotSame(foreignButton, findActionButton(group, 1));
+        assertEquals(1, pool.getRecycledButtonCount());
+        assertSame(foreignButton, pool.getRecycledButton(otherContext));
+    }
+}
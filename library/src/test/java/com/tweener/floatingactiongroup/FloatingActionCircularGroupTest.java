@@ -0,0 +1,102 @@
+package com.tweener.floatingactiongroup;
+
+import android.view.View;
+
+import com.tweener.floatingactiongroup.group.FloatingActionCircularGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+import static com.tweener.floatingactiongroup.GroupTestFixture.createActions;
+import static com.tweener.floatingactiongroup.GroupTestFixture.measureAndLayout;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Arc layout of {@link FloatingActionCircularGroup}, anchored at the bottom right corner by default.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionCircularGroupTest {
+
+    private static final int ACTION_COUNT = 4;
+    private static final float TOLERANCE = 1.5f;
+
+    private FloatingActionGroup group;
+    private int radial;
+
+    @Before
+    public void setUp() {
+        final GroupTestFixture fixture = new GroupTestFixture();
+        radial = FloatingActionGroupSpec.obtain(fixture.context).getCircularRadial();
+
+        group = new FloatingActionCircularGroup(fixture.context, Robolectric.buildAttributeSet().build());
+        group.setAnimationClock(fixture.clock);
+        group.setActions(createActions(ACTION_COUNT));
+        measureAndLayout(group);
+    }
+
+    @Test
+    public void placesEveryChildOnTheArc() {
+        final View mainFab = group.getMainFAB();
+
+        for (final View child : getActionButtons()) {
+            final float dx = getCenterX(child) - getCenterX(mainFab);
+            final float dy = getCenterY(child) - getCenterY(mainFab);
+
+            assertEquals(radial, Math.hypot(dx, dy), TOLERANCE);
+
+            // Spread away from the bottom and right edges
+            assertTrue(dx <= TOLERANCE);
+            assertTrue(dy <= TOLERANCE);
+        }
+    }
+
+    @Test
+    public void keepsEveryChildWithinItsBounds() {
+        for (final View child : getActionButtons()) {
+            assertTrue(child.getLeft() >= 0);
+            assertTrue(child.getTop() >= 0);
+            assertTrue(child.getRight() <= group.getWidth());
+            assertTrue(child.getBottom() <= group.getHeight());
+        }
+    }
+
+    @Test
+    public void collapsedChildrenAreBehindTheMainFab() {
+        final View mainFab = group.getMainFAB();
+
+        for (final View child : getActionButtons()) {
+            assertEquals(getCenterX(mainFab), getCenterX(child) + child.getTranslationX(), TOLERANCE);
+            assertEquals(getCenterY(mainFab), getCenterY(child) + child.getTranslationY(), TOLERANCE);
+        }
+
+        group.toggle(false);
+
+        for (final View child : getActionButtons()) {
+            assertEquals(0f, child.getTranslationX(), 0f);
+            assertEquals(0f, child.getTranslationY(), 0f);
+        }
+    }
+
+    private List<View> getActionButtons() {
+        final List<View> buttons = GroupTestFixture.getActionButtons(group);
+
+        assertEquals(ACTION_COUNT, buttons.size());
+        return buttons;
+    }
+
+    private static float getCenterX(final View view) {
+        return (view.getLeft() + view.getRight()) / 2f;
+    }
+
+    private static float getCenterY(final View view) {
+        return (view.getTop() + view.getBottom()) / 2f;
+    }
+}
@@ -0,0 +1,54 @@
+package com.tweener.floatingactiongroup;
+
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.tweener.floatingactiongroup.GroupTestFixture.UNSPECIFIED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Binding and measuring of {@link FloatingActionFlatLabelledButton}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionFlatLabelledButtonTest {
+
+    private static final String LONG_LABEL = "A label much wider than the space given to the button by its parent";
+
+    private FloatingActionFlatLabelledButton button;
+
+    @Before
+    public void setUp() {
+        button = new FloatingActionFlatLabelledButton(new GroupTestFixture().context);
+    }
+
+    @Test
+    public void bindsTheAction() {
+        button.bind(new FloatingAction(7, LONG_LABEL, android.R.drawable.ic_menu_add, 0, false));
+
+        assertEquals(7, button.getId());
+        assertFalse(button.isEnabled());
+    }
+
+    @Test
+    public void ellipsizesTheLabelWhenConstrained() {
+        button.bind(new FloatingAction(1, LONG_LABEL, android.R.drawable.ic_menu_add));
+        button.measure(UNSPECIFIED, UNSPECIFIED);
+        final int fullWidth = button.getMeasuredWidth();
+
+        final int maxWidth = fullWidth / 2;
+        button.measure(View.MeasureSpec.makeMeasureSpec(maxWidth, View.MeasureSpec.AT_MOST), UNSPECIFIED);
+        assertTrue(button.getMeasuredWidth() <= maxWidth);
+
+        // Given its full width again, the label is not ellipsized anymore
+        button.measure(UNSPECIFIED, UNSPECIFIED);
+        assertEquals(fullWidth, button.getMeasuredWidth());
+    }
+}
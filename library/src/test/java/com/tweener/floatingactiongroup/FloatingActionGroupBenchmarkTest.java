@@ -0,0 +1,247 @@
+package com.tweener.floatingactiongroup;
+
+import android.view.Choreographer;
+import android.view.View;
+
+import com.tweener.floatingactiongroup.animation.ManualAnimationClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+import static com.tweener.floatingactiongroup.GroupTestFixture.createActions;
+import static com.tweener.floatingactiongroup.GroupTestFixture.getActionButtons;
+import static com.tweener.floatingactiongroup.GroupTestFixture.measureAndLayout;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Headless benchmark of {@link FloatingActionGroup}, run on the JVM with the main looper paused, so nothing but the measured calls touches the
+ * views.<br>
+ * Each operation is measured for groups of 1 to 30 actions and reported on the standard output. Wall-clock times depend on the machine, so they are
+ * only reported, and checked relatively to each other. Allocations of an animation frame are diffed against a baseline frame applying the same
+ * view properties, so only the allocations of the library remain. The results for 30 actions are checked against the budgets of
+ * {@code benchmark-budgets.properties}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionGroupBenchmarkTest {
+
+    private static final int[] ACTION_COUNTS = {1, 5, 10, 20, 30};
+    private static final int BUDGET_ACTION_COUNT = 30;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int ITERATIONS = 20;
+    private static final int FRAMES = 30;
+
+    private GroupTestFixture fixture;
+    private ManualAnimationClock clock;
+    private Properties budgets;
+
+    @Before
+    public void setUp() throws IOException {
+        fixture = new GroupTestFixture();
+        clock = fixture.clock;
+
+        budgets = new Properties();
+        try (InputStream inputStream = getClass().getClassLoader().getResourceAsStream("benchmark-budgets.properties")) {
+            budgets.load(inputStream);
+        }
+    }
+
+    @Test
+    public void construct() {
+        for (final int actionCount : ACTION_COUNTS) {
+            final List<FloatingAction> actions = createActions(actionCount);
+
+            final long micros = measureMicros(() -> fixture.createVerticalGroup(actions));
+
+            report("construct", actionCount, micros);
+        }
+    }
+
+    @Test
+    public void measureLayout() {
+        for (final int actionCount : ACTION_COUNTS) {
+            final FloatingActionGroup group = fixture.createVerticalGroup(createActions(actionCount));
+
+            final long coldMicros = measureMicros(() -> {
+                group.invalidateLayoutCache();
+                measureAndLayout(group);
+            });
+            final long warmMicros = measureMicros(() -> measureAndLayout(group));
+
+            report("measureLayout.cold", actionCount, coldMicros);
+            report("measureLayout.warm", actionCount, warmMicros);
+
+            // A pass with nothing changed must be a fraction of a full pass, on any machine
+            checkBudget("measureLayout.warmToColdMaxPercent", actionCount, warmMicros * 100 / Math.max(1, coldMicros));
+        }
+    }
+
+    @Test
+    public void toggle() {
+        for (final int actionCount : ACTION_COUNTS) {
+            final FloatingActionGroup group = fixture.createVerticalGroup(createActions(actionCount));
+            measureAndLayout(group);
+
+            final long micros = measureMicros(() -> {
+                group.toggle(true);
+                group.toggle(true);
+            });
+
+            report("toggle", actionCount, micros);
+        }
+    }
+
+    @Test
+    public void animationFrame() {
+        for (final int actionCount : ACTION_COUNTS) {
+            final FloatingActionGroup group = fixture.createVerticalGroup(createActions(actionCount));
+            measureAndLayout(group);
+
+            // Warms up the animator so its buffers are allocated
+            runAnimation(group);
+            runAnimation(group);
+
+            // What the clock, the views and the Robolectric shadows allocate for a frame, without the library
+            final BaselineFrame baselineFrame = new BaselineFrame(group);
+            baselineFrame.run();
+            final long baselineStartBytes = getAllocatedBytes();
+            final int baselineFrames = baselineFrame.run();
+            final long baselineBytes = (getAllocatedBytes() - baselineStartBytes) / baselineFrames;
+
+            // Only the frames are measured, not the toggle starting the animation
+            group.toggle(true);
+            final long startBytes = getAllocatedBytes();
+            final long startNanos = System.nanoTime();
+            final int frames = Math.max(1, clock.runUntilIdle(FRAMES));
+            final long micros = (System.nanoTime() - startNanos) / 1000 / frames;
+            final long allocatedBytes = (getAllocatedBytes() - startBytes) / frames;
+
+            report("frame", actionCount, micros);
+            report("frame.allocatedBytes", actionCount, allocatedBytes);
+            report("frame.baselineBytes", actionCount, baselineBytes);
+            checkBudget("frame.maxLibraryAllocatedBytes", actionCount, Math.max(0, allocatedBytes - baselineBytes));
+        }
+    }
+
+    @Test
+    public void replayedToggleStorm() {
+        final FloatingActionGroup group = fixture.createVerticalGroup(createActions(BUDGET_ACTION_COUNT));
+        measureAndLayout(group);
+
+        // Double taps, then a tap in the middle of the animation: toggles must retarget the running animation
+        clock.schedule(0, () -> group.toggle(true));
+        clock.schedule(0, () -> group.toggle(true));
+        clock.schedule(ManualAnimationClock.DEFAULT_FRAME_INTERVAL_NANOS, () -> group.toggle(true));
+        clock.schedule(ManualAnimationClock.DEFAULT_FRAME_INTERVAL_NANOS * 8, () -> group.toggle(true));
+
+        final int frames = clock.runUntilIdle(FRAMES * 4);
+
+        report("toggleStorm.frames", BUDGET_ACTION_COUNT, frames);
+        assertTrue("animation did not settle", !group.getGroupAnimator().isRunning());
+        assertTrue("group should be collapsed", group.getState() == FloatingActionGroup.State.COLLAPSED);
+    }
+
+    /**
+     * Toggles the group and steps its animation frame by frame until it ends.
+     *
+     * @return the number of frames rendered
+     */
+    private int runAnimation(final FloatingActionGroup group) {
+        group.toggle(true);
+        return Math.max(1, clock.runUntilIdle(FRAMES));
+    }
+
+    /**
+     * Applies to every action and to the main FAB of a group what an animation frame applies to them, from a plain frame callback of the same
+     * clock. The listeners, the main FAB tint and the clip bounds are not replayed: what they allocate is covered by the tolerance of the budget.
+     */
+    private final class BaselineFrame implements Choreographer.FrameCallback {
+        private final List<View> children;
+        private final View mainFab;
+        private int remainingFrames;
+
+        private BaselineFrame(final FloatingActionGroup group) {
+            children = getActionButtons(group);
+            mainFab = group.getMainFAB();
+        }
+
+        /**
+         * @return the number of frames rendered
+         */
+        private int run() {
+            remainingFrames = FRAMES;
+            clock.postFrameCallback(this);
+            return Math.max(1, clock.runUntilIdle(FRAMES));
+        }
+
+        @Override
+        public void doFrame(final long frameTimeNanos) {
+            // Values change on every frame, as they do during an animation
+            final float progress = remainingFrames % 2 == 0 ? 0.25f : 0.75f;
+
+            final int childCount = children.size();
+            for (int i = 0; i < childCount; i++) {
+                final View child = children.get(i);
+                child.setAlpha(progress);
+                child.setTranslationX(progress);
+                child.setTranslationY(progress);
+
+                // Like the animator, only changes the visibility when needed
+                if (child.getVisibility() != View.VISIBLE) {
+                    child.setVisibility(View.VISIBLE);
+                }
+            }
+
+            mainFab.setRotation(progress);
+            mainFab.setScaleX(progress);
+            mainFab.setScaleY(progress);
+
+            if (--remainingFrames > 0) {
+                clock.postFrameCallback(this);
+            }
+        }
+    }
+
+    /**
+     * Returns the average duration, in microseconds, of the given operation.
+     */
+    private static long measureMicros(final Runnable operation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.run();
+        }
+
+        return (System.nanoTime() - start) / 1000 / ITERATIONS;
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void report(final String operation, final int actionCount, final long value) {
+        System.out.println(String.format(Locale.US, "benchmark %-24s actions=%-3d %d", operation, actionCount, value));
+    }
+
+    private void checkBudget(final String key, final int actionCount, final long value) {
+        if (actionCount != BUDGET_ACTION_COUNT) {
+            return;
+        }
+
+        final long budget = Long.parseLong(budgets.getProperty(key));
+        assertTrue(key + " regressed: " + value + " > " + budget, value <= budget);
+    }
+}
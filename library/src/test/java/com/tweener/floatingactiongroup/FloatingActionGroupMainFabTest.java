@@ -0,0 +1,62 @@
+package com.tweener.floatingactiongroup;
+
+import android.content.res.ColorStateList;
+
+import com.tweener.floatingactiongroup.animation.ManualAnimationClock;
+import com.tweener.floatingactiongroup.group.FloatingActionVerticalGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.tweener.floatingactiongroup.GroupTestFixture.createActions;
+import static com.tweener.floatingactiongroup.GroupTestFixture.measureAndLayout;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Tint of the main FAB of a {@link FloatingActionGroup} animated between its 'backgroundNormal' and 'backgroundExpanded' colors.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionGroupMainFabTest {
+
+    private static final int MAX_FRAMES = 120;
+
+    private ManualAnimationClock clock;
+    private FloatingActionGroup group;
+
+    @Before
+    public void setUp() {
+        final GroupTestFixture fixture = new GroupTestFixture();
+        clock = fixture.clock;
+
+        group = new FloatingActionVerticalGroup(fixture.context, Robolectric.buildAttributeSet()
+                .addAttribute(R.attr.backgroundNormal, "@android:color/primary_text_dark")
+                .addAttribute(R.attr.backgroundExpanded, "#FFFF0000")
+                .build());
+        group.setAnimationClock(clock);
+        group.setActions(createActions(3));
+        measureAndLayout(group);
+    }
+
+    @Test
+    public void keepsTheStatefulTintsAtRest() {
+        assertSame(group.getBackgroundNormal(), group.getMainFAB().getBackgroundTintList());
+
+        group.toggle(true);
+        clock.stepFrames(3);
+        final ColorStateList animatedTint = group.getMainFAB().getBackgroundTintList();
+        assertNotSame(group.getBackgroundNormal(), animatedTint);
+        assertNotSame(group.getBackgroundExpanded(), animatedTint);
+
+        clock.runUntilIdle(MAX_FRAMES);
+        assertSame(group.getBackgroundExpanded(), group.getMainFAB().getBackgroundTintList());
+
+        group.toggle(false);
+        assertSame(group.getBackgroundNormal(), group.getMainFAB().getBackgroundTintList());
+    }
+}
@@ -0,0 +1,68 @@
+package com.tweener.floatingactiongroup;
+
+import com.tweener.floatingactiongroup.animation.AnimationMetrics;
+import com.tweener.floatingactiongroup.animation.ManualAnimationClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tweener.floatingactiongroup.GroupTestFixture.createActions;
+import static com.tweener.floatingactiongroup.GroupTestFixture.measureAndLayout;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Metrics reported by {@link FloatingActionGroup} for its expand and collapse animations.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionGroupMetricsTest {
+
+    private static final int MAX_FRAMES = 120;
+
+    private ManualAnimationClock clock;
+    private FloatingActionGroup group;
+    private final List<Integer> reportedFrameCounts = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        final GroupTestFixture fixture = new GroupTestFixture();
+        clock = fixture.clock;
+
+        group = fixture.createVerticalGroup(createActions(3));
+        measureAndLayout(group);
+        group.setOnFloatingActionGroupMetricsListener(this::onMetrics);
+    }
+
+    @Test
+    public void reportsMetricsOncePerAnimation() {
+        group.toggle(true);
+        clock.stepFrames(3);
+        group.toggle(true);
+        clock.runUntilIdle(MAX_FRAMES);
+
+        assertEquals(1, reportedFrameCounts.size());
+        assertTrue(reportedFrameCounts.get(0) > 3);
+    }
+
+    @Test
+    public void doesNotReportMetricsOfJumps() {
+        group.toggle(true);
+        clock.runUntilIdle(MAX_FRAMES);
+
+        group.toggle(false);
+        group.toggle(false);
+
+        assertEquals(1, reportedFrameCounts.size());
+    }
+
+    private void onMetrics(final AnimationMetrics metrics) {
+        reportedFrameCounts.add(metrics.getFrameCount());
+    }
+}
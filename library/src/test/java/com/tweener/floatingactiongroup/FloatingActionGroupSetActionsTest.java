@@ -0,0 +1,97 @@
+package com.tweener.floatingactiongroup;
+
+import android.view.View;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.tweener.floatingactiongroup.GroupTestFixture.createActionsWithIds;
+import static com.tweener.floatingactiongroup.GroupTestFixture.findActionButton;
+import static com.tweener.floatingactiongroup.GroupTestFixture.getActionButtons;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Diffing of {@link FloatingActionGroup#setActions(List)} against the current children.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionGroupSetActionsTest {
+
+    private GroupTestFixture fixture;
+    private FloatingActionGroup group;
+
+    @Before
+    public void setUp() {
+        fixture = new GroupTestFixture();
+        group = fixture.createVerticalGroup(new ArrayList<>());
+    }
+
+    @Test
+    public void addsOneButtonPerActionInOrder() {
+        group.setActions(createActionsWithIds(1, 2, 3));
+
+        assertEquals(Arrays.asList(1, 2, 3), getActionIds());
+        assertEquals("Action 2", getLabel(findActionButton(group, 2)));
+    }
+
+    @Test
+    public void reusesButtonsWithTheSameId() {
+        group.setActions(createActionsWithIds(1, 2, 3));
+        final View button1 = findActionButton(group, 1);
+        final View button3 = findActionButton(group, 3);
+
+        group.setActions(Arrays.asList(
+                new FloatingAction(3, "Renamed", android.R.drawable.ic_menu_add),
+                new FloatingAction(1, "Action 1", android.R.drawable.ic_menu_add)));
+
+        assertEquals(Arrays.asList(3, 1), getActionIds());
+        assertSame(button1, findActionButton(group, 1));
+        assertSame(button3, findActionButton(group, 3));
+        assertEquals("Renamed", getLabel(findActionButton(group, 3)));
+    }
+
+    @Test
+    public void removesChildrenWithoutId() {
+        group.addView(new FloatingActionLabelledButton(fixture.context));
+
+        group.setActions(createActionsWithIds(1));
+
+        assertEquals(Arrays.asList(1), getActionIds());
+    }
+
+    @Test
+    public void sameActionsTwiceDoNotMoveAnyButton() {
+        final List<FloatingAction> actions = createActionsWithIds(1, 2, 3);
+        group.setActions(actions);
+        final List<View> buttons = getActionButtons(group);
+
+        group.setActions(actions);
+
+        assertEquals(buttons, getActionButtons(group));
+        assertNull(group.getButtonPool());
+    }
+
+    private List<Integer> getActionIds() {
+        final List<Integer> ids = new ArrayList<>();
+        for (final View button : getActionButtons(group)) {
+            ids.add(button.getId());
+        }
+
+        return ids;
+    }
+
+    private static String getLabel(final View button) {
+        final TextView label = button.findViewById(R.id.falb_label);
+        return label.getText().toString();
+    }
+}
@@ -0,0 +1,115 @@
+package com.tweener.floatingactiongroup;
+
+import android.view.View;
+
+import com.tweener.floatingactiongroup.animation.ManualAnimationClock;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import static com.tweener.floatingactiongroup.GroupTestFixture.createActions;
+import static com.tweener.floatingactiongroup.GroupTestFixture.getActionButtons;
+import static com.tweener.floatingactiongroup.GroupTestFixture.measureAndLayout;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Expand/collapse state machine of {@link FloatingActionGroup}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionGroupStateTest {
+
+    private static final int MAX_FRAMES = 120;
+
+    private ManualAnimationClock clock;
+    private FloatingActionGroup group;
+
+    @Before
+    public void setUp() {
+        final GroupTestFixture fixture = new GroupTestFixture();
+        clock = fixture.clock;
+
+        group = fixture.createVerticalGroup(createActions(3));
+        measureAndLayout(group);
+    }
+
+    @Test
+    public void animatedToggleGoesThroughTransientStates() {
+        assertEquals(FloatingActionGroup.State.COLLAPSED, group.getState());
+
+        group.toggle(true);
+        assertEquals(FloatingActionGroup.State.EXPANDING, group.getState());
+        assertTrue(group.isExpanded());
+
+        clock.runUntilIdle(MAX_FRAMES);
+        assertEquals(FloatingActionGroup.State.EXPANDED, group.getState());
+
+        group.toggle(true);
+        assertEquals(FloatingActionGroup.State.COLLAPSING, group.getState());
+        assertTrue(group.isCollapsed());
+
+        clock.runUntilIdle(MAX_FRAMES);
+        assertEquals(FloatingActionGroup.State.COLLAPSED, group.getState());
+    }
+
+    @Test
+    public void toggleWithoutAnimationJumpsToTheFinalState() {
+        group.toggle(false);
+
+        assertEquals(FloatingActionGroup.State.EXPANDED, group.getState());
+        assertFalse(group.getGroupAnimator().isRunning());
+        assertEquals(1f, group.getGroupAnimator().getProgress(), 0f);
+    }
+
+    @Test
+    public void toggleDuringAnimationReversesIt() {
+        group.toggle(true);
+        clock.stepFrames(5);
+        final float progress = group.getGroupAnimator().getProgress();
+
+        group.toggle(true);
+        assertEquals(FloatingActionGroup.State.COLLAPSING, group.getState());
+
+        // The reversed run moves from the very next frame
+        clock.stepFrame();
+        assertTrue(group.getGroupAnimator().getProgress() < progress);
+
+        clock.runUntilIdle(MAX_FRAMES);
+        assertEquals(FloatingActionGroup.State.COLLAPSED, group.getState());
+        assertEquals(0f, group.getGroupAnimator().getProgress(), 0f);
+    }
+
+    @Test
+    public void onlyShowsTheChildrenItHid() {
+        final View hiddenByApp = getActionButtons(group).get(0);
+        final View goneByApp = getActionButtons(group).get(1);
+        final View shown = getActionButtons(group).get(2);
+        group.toggle(false);
+        hiddenByApp.setVisibility(View.INVISIBLE);
+        group.toggle(false);
+        goneByApp.setVisibility(View.GONE);
+
+        group.toggle(true);
+        clock.runUntilIdle(MAX_FRAMES);
+
+        assertEquals(View.INVISIBLE, hiddenByApp.getVisibility());
+        assertEquals(View.GONE, goneByApp.getVisibility());
+        assertEquals(View.VISIBLE, shown.getVisibility());
+    }
+
+    @Test
+    public void changingTheClockEndsTheRunningAnimation() {
+        group.toggle(true);
+        clock.stepFrames(2);
+
+        group.setAnimationClock(new ManualAnimationClock());
+
+        assertEquals(FloatingActionGroup.State.EXPANDED, group.getState());
+        assertFalse(group.getGroupAnimator().isRunning());
+    }
+}
@@ -0,0 +1,82 @@
+package com.tweener.floatingactiongroup;
+
+import android.content.Context;
+import android.util.Xml;
+import android.view.View;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Parsing of the menu documents given to {@link FloatingActionMenus}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionMenusTest {
+
+    private static final String MENU = "<menu xmlns:android=\"http://schemas.android.com/apk/res/android\"\n"
+            + "      xmlns:app=\"http://schemas.android.com/apk/res-auto\">\n"
+            + "    <item android:id=\"@android:id/button1\" android:title=\"Share\" android:icon=\"@android:drawable/ic_menu_share\"/>\n"
+            + "    <item android:id=\"@android:id/button2\" android:title=\"Delete\" android:enabled=\"false\" app:iconTint=\"#FFFF0000\"/>\n"
+            + "    <item android:id=\"@android:id/button3\" android:title=\"Hidden\" android:visible=\"false\"/>\n"
+            + "    <item android:title=\"No id\"/>\n"
+            + "</menu>";
+
+    private Context context;
+
+    @Before
+    public void setUp() {
+        context = new GroupTestFixture().context;
+    }
+
+    @Test
+    public void parsesVisibleItemsInOrder() throws XmlPullParserException {
+        final List<FloatingAction> actions = FloatingActionMenus.parse(context, createParser(MENU));
+
+        assertEquals(3, actions.size());
+        assertEquals(android.R.id.button1, actions.get(0).getId());
+        assertEquals(android.R.id.button2, actions.get(1).getId());
+        assertEquals(View.NO_ID, actions.get(2).getId());
+        assertEquals("No id", actions.get(2).getLabel());
+    }
+
+    @Test
+    public void parsesItemAttributes() throws XmlPullParserException {
+        final List<FloatingAction> actions = FloatingActionMenus.parse(context, createParser(MENU));
+
+        final FloatingAction share = actions.get(0);
+        assertEquals("Share", share.getLabel());
+        assertEquals(android.R.drawable.ic_menu_share, share.getIconResId());
+        assertEquals(0, share.getIconTint());
+        assertTrue(share.isEnabled());
+
+        final FloatingAction delete = actions.get(1);
+        assertEquals(0, delete.getIconResId());
+        assertEquals(0xFFFF0000, delete.getIconTint());
+        assertFalse(delete.isEnabled());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void returnsAnImmutableList() throws XmlPullParserException {
+        FloatingActionMenus.parse(context, createParser(MENU)).clear();
+    }
+
+    private static XmlPullParser createParser(final String xml) throws XmlPullParserException {
+        final XmlPullParser parser = Xml.newPullParser();
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(new StringReader(xml));
+        return parser;
+    }
+}
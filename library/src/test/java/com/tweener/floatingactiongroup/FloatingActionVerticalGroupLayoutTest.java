@@ -0,0 +1,139 @@
+package com.tweener.floatingactiongroup;
+
+import android.graphics.Rect;
+import android.view.View;
+
+import com.tweener.floatingactiongroup.group.FloatingActionVerticalGroup;
+import com.tweener.floatingactiongroup.layout.GroupLayout;
+import com.tweener.floatingactiongroup.layout.VerticalLayoutStrategy;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tweener.floatingactiongroup.GroupTestFixture.createActions;
+import static com.tweener.floatingactiongroup.GroupTestFixture.measureAndLayout;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the vertical group places its children exactly where the original measure and layout code of
+ * {@link FloatingActionVerticalGroup} did, before it was replaced by {@link VerticalLayoutStrategy}.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionVerticalGroupLayoutTest {
+
+    private GroupTestFixture fixture;
+    private FloatingActionGroupSpec spec;
+
+    @Before
+    public void setUp() {
+        fixture = new GroupTestFixture();
+        spec = FloatingActionGroupSpec.obtain(fixture.context);
+    }
+
+    @Test
+    public void childBoundsMatchBaseline() {
+        for (final int actionCount : new int[]{0, 1, 3, 10}) {
+            final FloatingActionGroup group = fixture.createVerticalGroup(createActions(actionCount));
+            measureAndLayout(group);
+
+            final List<Rect> expected = computeBaselineBounds(group);
+
+            assertEquals("height, actions=" + actionCount, expected.get(0).bottom, group.getMeasuredHeight());
+            assertEquals("width, actions=" + actionCount, expected.get(0).right, group.getMeasuredWidth());
+
+            int index = 1;
+            for (int i = group.getChildCount() - 1; i >= 0; i--) {
+                final View child = group.getChildAt(i);
+                if (child.getVisibility() == View.GONE || child == group.getMainFAB()) {
+                    continue;
+                }
+
+                assertEquals("child " + i + ", actions=" + actionCount, expected.get(index++), getBounds(child));
+            }
+
+            assertEquals("main FAB, actions=" + actionCount, expected.get(index), getBounds(group.getMainFAB()));
+        }
+    }
+
+    @Test
+    public void downwardStackMirrorsUpwardStack() {
+        final int[] heights = {40, 56, 48};
+        final GroupLayout up = computeLayout(VerticalLayoutStrategy.DIRECTION_UP, heights);
+        final GroupLayout down = computeLayout(VerticalLayoutStrategy.DIRECTION_DOWN, heights);
+
+        assertEquals(up.getHeight(), down.getHeight());
+        assertEquals(up.getHeight() - up.getMainFabTop() - up.getMainFabHeight(), down.getMainFabTop());
+
+        for (int i = 0; i < heights.length; i++) {
+            assertEquals(up.getHeight() - up.getChildTop(i) - heights[i], down.getChildTop(i));
+            assertEquals(-up.getCollapsedOffsetY(i), down.getCollapsedOffsetY(i));
+        }
+    }
+
+    /**
+     * Replays the original onMeasure() and onLayout() of the vertical group.
+     *
+     * @return the bounds of the group, then of each action from the farthest to the closest, then of the main FAB
+     */
+    private List<Rect> computeBaselineBounds(final FloatingActionGroup group) {
+        final View mainFab = group.getMainFAB();
+        final int margin = spec.getMarginBetweenFabs();
+        final int paddingVert = spec.getPaddingVert();
+        final int paddingRight = spec.getPaddingHorz();
+
+        int width = 0;
+        int height = 0;
+        for (int i = 0; i < group.getChildCount(); i++) {
+            final View child = group.getChildAt(i);
+            if (child.getVisibility() != View.GONE) {
+                width = Math.max(child.getMeasuredWidth(), width);
+                height += child.getMeasuredHeight() + margin;
+            }
+        }
+
+        height += 2 * paddingVert;
+        width += paddingRight;
+
+        final List<Rect> bounds = new ArrayList<>();
+        bounds.add(new Rect(0, 0, width, height));
+
+        int y = 0;
+        for (int i = group.getChildCount() - 1; i >= 0; i--) {
+            final View child = group.getChildAt(i);
+            if (child.getVisibility() == View.GONE || child == mainFab) {
+                continue;
+            }
+
+            bounds.add(new Rect(width - child.getMeasuredWidth(), y, width, y + child.getMeasuredHeight()));
+            y += child.getMeasuredHeight() + margin;
+        }
+
+        final int mainX = width - paddingRight;
+        final int mainY = y + paddingVert;
+        bounds.add(new Rect(mainX - mainFab.getMeasuredWidth(), mainY, mainX, mainY + mainFab.getMeasuredHeight()));
+        return bounds;
+    }
+
+    private static GroupLayout computeLayout(final int direction, final int[] heights) {
+        final GroupLayout layout = new GroupLayout();
+        layout.reset(heights.length);
+        layout.setMainFabSize(56, 56);
+        for (int i = 0; i < heights.length; i++) {
+            layout.setChildSize(i, 120, heights[i]);
+        }
+
+        new VerticalLayoutStrategy(direction, 8, 12, 16).computeLayout(layout);
+        return layout;
+    }
+
+    private static Rect getBounds(final View view) {
+        return new Rect(view.getLeft(), view.getTop(), view.getRight(), view.getBottom());
+    }
+}
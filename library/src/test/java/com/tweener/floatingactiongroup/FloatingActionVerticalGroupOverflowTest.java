@@ -0,0 +1,121 @@
+package com.tweener.floatingactiongroup;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewConfiguration;
+
+import com.tweener.floatingactiongroup.group.FloatingActionVerticalGroup;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.tweener.floatingactiongroup.GroupTestFixture.createActions;
+import static com.tweener.floatingactiongroup.GroupTestFixture.measureAndLayout;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Overflow mode of {@link FloatingActionVerticalGroup}: capped height, and only the actions within the visible window are materialized.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class FloatingActionVerticalGroupOverflowTest {
+
+    private static final int ACTION_COUNT = 30;
+    private static final int MAX_EXPANDED_HEIGHT = 300;
+    private static final int SCROLLED_ACTIONS = 3;
+
+    private Context context;
+    private FloatingActionVerticalGroup group;
+
+    @Before
+    public void setUp() {
+        final GroupTestFixture fixture = new GroupTestFixture();
+        context = fixture.context;
+
+        group = fixture.createVerticalGroup(new ArrayList<>());
+        group.setMaxExpandedHeight(MAX_EXPANDED_HEIGHT);
+        group.setActions(createActions(ACTION_COUNT));
+        measureAndLayout(group);
+    }
+
+    @Test
+    public void capsItsHeight() {
+        assertTrue(group.getMeasuredHeight() <= MAX_EXPANDED_HEIGHT);
+    }
+
+    @Test
+    public void onlyMaterializesTheVisibleWindow() {
+        final List<View> buttons = getActionButtons();
+
+        assertTrue(buttons.size() > 0);
+        assertTrue(buttons.size() < ACTION_COUNT);
+        assertEquals(1, buttons.get(0).getId());
+        assertNotNull(group.getButtonPool());
+    }
+
+    @Test
+    public void scrollingRebindsTheWindow() {
+        group.toggle(false);
+        final View firstButton = getActionButtons().get(0);
+        final int extent = firstButton.getHeight() + FloatingActionGroupSpec.obtain(context).getMarginBetweenFabs();
+
+        scrollBy(SCROLLED_ACTIONS * extent);
+        measureAndLayout(group);
+
+        final List<View> buttons = getActionButtons();
+        assertEquals(SCROLLED_ACTIONS + 1, buttons.get(0).getId());
+        assertTrue(buttons.size() < ACTION_COUNT);
+    }
+
+    @Test
+    public void reportsIndicesWithinAllTheActions() {
+        group.toggle(false);
+        final int extent = getActionButtons().get(0).getHeight() + FloatingActionGroupSpec.obtain(context).getMarginBetweenFabs();
+        scrollBy(SCROLLED_ACTIONS * extent);
+        measureAndLayout(group);
+
+        final int[] clickedIndex = {-1};
+        group.addOnFloatingActionClickListener((clickedGroup, actionId, index) -> clickedIndex[0] = index);
+
+        final FloatingActionLabelledButton button = (FloatingActionLabelledButton) getActionButtons().get(1);
+        button.onClick(button);
+
+        // Ids start at 1
+        assertEquals(button.getId() - 1, clickedIndex[0]);
+    }
+
+    /**
+     * Drags the list down by the given distance, which brings the actions farther from the main FAB into view.
+     */
+    private void scrollBy(final int distance) {
+        final int touchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
+        final float x = group.getWidth() / 2f;
+        final float startY = group.getMainFAB().getTop() / 2f;
+        final long downTime = SystemClock.uptimeMillis();
+
+        dispatchTouchEvent(downTime, MotionEvent.ACTION_DOWN, x, startY);
+        dispatchTouchEvent(downTime, MotionEvent.ACTION_MOVE, x, startY + touchSlop + 1);
+        dispatchTouchEvent(downTime, MotionEvent.ACTION_MOVE, x, startY + touchSlop + 1 + distance);
+        dispatchTouchEvent(downTime, MotionEvent.ACTION_UP, x, startY + touchSlop + 1 + distance);
+    }
+
+    private void dispatchTouchEvent(final long downTime, final int action, final float x, final float y) {
+        final MotionEvent event = MotionEvent.obtain(downTime, SystemClock.uptimeMillis(), action, x, y, 0);
+        group.onTouchEvent(event);
+        event.recycle();
+    }
+
+    private List<View> getActionButtons() {
+        return GroupTestFixture.getActionButtons(group);
+    }
+}
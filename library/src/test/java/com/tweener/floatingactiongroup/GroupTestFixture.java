@@ -0,0 +1,98 @@
+package com.tweener.floatingactiongroup;
+
+import android.content.Context;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import com.tweener.floatingactiongroup.animation.ManualAnimationClock;
+import com.tweener.floatingactiongroup.group.FloatingActionVerticalGroup;
+
+import org.robolectric.Robolectric;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Setup shared by the Robolectric tests of the groups: a themed context, the main looper paused so nothing but the tested calls touches the
+ * views, and a {@link ManualAnimationClock} to step the animations frame by frame.<br>
+ * Must be created from a {@code @Before} method, once Robolectric has set up the application.
+ */
+final class GroupTestFixture {
+
+    static final int UNSPECIFIED = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+
+    final Context context;
+    final ManualAnimationClock clock;
+
+    GroupTestFixture() {
+        context = new ContextThemeWrapper(RuntimeEnvironment.application, R.style.Theme_AppCompat_Light);
+        Robolectric.getForegroundThreadScheduler().pause();
+        clock = new ManualAnimationClock();
+    }
+
+    /**
+     * Creates a vertical group animated by the clock of this fixture, holding the given actions.
+     */
+    FloatingActionVerticalGroup createVerticalGroup(final List<FloatingAction> actions) {
+        final FloatingActionVerticalGroup group = new FloatingActionVerticalGroup(context, Robolectric.buildAttributeSet().build());
+        group.setAnimationClock(clock);
+        group.setActions(actions);
+        return group;
+    }
+
+    /**
+     * Creates the given number of actions, with ids starting at 1.
+     */
+    static List<FloatingAction> createActions(final int actionCount) {
+        final List<FloatingAction> actions = new ArrayList<>(actionCount);
+        for (int i = 0; i < actionCount; i++) {
+            actions.add(createAction(i + 1));
+        }
+
+        return actions;
+    }
+
+    static List<FloatingAction> createActionsWithIds(final int... ids) {
+        final List<FloatingAction> actions = new ArrayList<>(ids.length);
+        for (final int id : ids) {
+            actions.add(createAction(id));
+        }
+
+        return actions;
+    }
+
+    static FloatingAction createAction(final int id) {
+        return new FloatingAction(id, "Action " + id, android.R.drawable.ic_menu_add);
+    }
+
+    static void measureAndLayout(final View view) {
+        view.measure(UNSPECIFIED, UNSPECIFIED);
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    /**
+     * Returns the children of a group, except its main FAB, in their order in the group.
+     */
+    static List<View> getActionButtons(final FloatingActionGroup group) {
+        final List<View> buttons = new ArrayList<>();
+        for (int i = 0; i < group.getChildCount(); i++) {
+            final View child = group.getChildAt(i);
+            if (child != group.getMainFAB()) {
+                buttons.add(child);
+            }
+        }
+
+        return buttons;
+    }
+
+    static View findActionButton(final FloatingActionGroup group, final int id) {
+        for (final View button : getActionButtons(group)) {
+            if (button.getId() == id) {
+                return button;
+            }
+        }
+
+        return null;
+    }
+}
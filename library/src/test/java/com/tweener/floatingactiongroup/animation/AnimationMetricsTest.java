@@ -0,0 +1,86 @@
+package com.tweener.floatingactiongroup.animation;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AnimationMetricsTest {
+
+    private static final long FRAME_INTERVAL_NANOS = 16000000L;
+
+    private AnimationMetrics metrics;
+
+    @Before
+    public void setUp() {
+        metrics = new AnimationMetrics();
+        metrics.start(true, FRAME_INTERVAL_NANOS);
+    }
+
+    @Test
+    public void recordsFramesAndDuration() {
+        metrics.addFrame(1000);
+        metrics.addFrame(1000 + FRAME_INTERVAL_NANOS);
+        metrics.addFrame(1000 + 2 * FRAME_INTERVAL_NANOS);
+
+        assertEquals(3, metrics.getFrameCount());
+        assertEquals(1000, metrics.getStartTimeNanos());
+        assertEquals(1000 + 2 * FRAME_INTERVAL_NANOS, metrics.getEndTimeNanos());
+        assertEquals(2 * FRAME_INTERVAL_NANOS, metrics.getDurationNanos());
+        assertEquals(0, metrics.getJankyFrameCount());
+    }
+
+    @Test
+    public void countsFramesMissingAVsyncAsJanky() {
+        metrics.addFrame(0);
+        metrics.addFrame(FRAME_INTERVAL_NANOS);
+        metrics.addFrame(3 * FRAME_INTERVAL_NANOS);
+        metrics.addFrame(4 * FRAME_INTERVAL_NANOS);
+
+        assertEquals(4, metrics.getFrameCount());
+        assertEquals(1, metrics.getJankyFrameCount());
+    }
+
+    @Test
+    public void startResetsEverything() {
+        metrics.addFrame(0);
+        metrics.addFrame(3 * FRAME_INTERVAL_NANOS);
+        metrics.addMeasureTime(10);
+        metrics.addLayoutTime(20);
+
+        metrics.start(false, FRAME_INTERVAL_NANOS * 2);
+
+        assertFalse(metrics.isExpanding());
+        assertEquals(FRAME_INTERVAL_NANOS * 2, metrics.getFrameIntervalNanos());
+        assertEquals(0, metrics.getFrameCount());
+        assertEquals(0, metrics.getJankyFrameCount());
+        assertEquals(0, metrics.getDurationNanos());
+        assertEquals(0, metrics.getMeasureTimeNanos());
+        assertEquals(0, metrics.getLayoutTimeNanos());
+    }
+
+    @Test
+    public void reversedAnimationKeepsItsFrames() {
+        metrics.addFrame(0);
+        metrics.addFrame(FRAME_INTERVAL_NANOS);
+
+        metrics.setExpanding(false);
+        metrics.addFrame(2 * FRAME_INTERVAL_NANOS);
+
+        assertFalse(metrics.isExpanding());
+        assertEquals(3, metrics.getFrameCount());
+    }
+
+    @Test
+    public void accumulatesMeasureAndLayoutTimes() {
+        metrics.addMeasureTime(10);
+        metrics.addMeasureTime(15);
+        metrics.addLayoutTime(7);
+
+        assertTrue(metrics.isExpanding());
+        assertEquals(25, metrics.getMeasureTimeNanos());
+        assertEquals(7, metrics.getLayoutTimeNanos());
+    }
+}
@@ -0,0 +1,79 @@
+package com.tweener.floatingactiongroup.util;
+
+import android.text.Layout;
+import android.view.ContextThemeWrapper;
+import android.view.View;
+
+import com.tweener.floatingactiongroup.R;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Label texts precomputed by {@link TextPrecomputer} and applied by {@link CustomTextView}, below API 28.
+ */
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 27)
+public class TextPrecomputerTest {
+
+    private static final int UNSPECIFIED = View.MeasureSpec.makeMeasureSpec(0, View.MeasureSpec.UNSPECIFIED);
+
+    private CustomTextView textView;
+
+    @Before
+    public void setUp() {
+        // Precomputes on the calling thread, results are delivered when the main looper runs
+        TextPrecomputer.setExecutor(Runnable::run);
+        Robolectric.getForegroundThreadScheduler().pause();
+
+        textView = new CustomTextView(new ContextThemeWrapper(RuntimeEnvironment.application, R.style.Theme_AppCompat_Light));
+    }
+
+    @After
+    public void tearDown() {
+        TextPrecomputer.setExecutor(null);
+    }
+
+    @Test
+    public void setsTheTextRightAwayAndCachesItsWidth() {
+        textView.setPrecomputableText("Share");
+
+        assertEquals("Share", textView.getText().toString());
+
+        final TextPrecomputer.Result result = TextPrecomputer.getCachedResult("Share", textView);
+        assertNotNull(result);
+        assertEquals(Layout.getDesiredWidth("Share", textView.getPaint()), result.getWidth(), 0f);
+    }
+
+    @Test
+    public void keysResultsByTextParameters() {
+        textView.setPrecomputableText("Delete");
+        textView.setTextSize(textView.getTextSize() * 2);
+
+        assertNull(TextPrecomputer.getCachedResult("Delete", textView));
+    }
+
+    @Test
+    public void measuresWithThePrecomputedWidth() {
+        textView.setPrecomputableText("Archive");
+        textView.measure(UNSPECIFIED, UNSPECIFIED);
+        final int width = textView.getMeasuredWidth();
+
+        // Already precomputed: applied without measuring the text again
+        final CustomTextView otherTextView = new CustomTextView(textView.getContext());
+        otherTextView.setPrecomputableText("Archive");
+        otherTextView.measure(UNSPECIFIED, UNSPECIFIED);
+
+        assertEquals(width, otherTextView.getMeasuredWidth());
+    }
+}